@@ -1,16 +1,31 @@
 package com.hugscape;
 
+import com.hugscape.config.BulkImportRunner;
+import com.hugscape.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class KidsShoppingApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(KidsShoppingApplication.class, args);
+        SpringApplication application = new SpringApplication(KidsShoppingApplication.class);
+        if (BulkImportRunner.isImport(args)) {
+            // A command line import needs neither the web server nor the sample data; it is finished once the
+            // context has started, and exits with the import's outcome
+            application.setWebApplicationType(WebApplicationType.NONE);
+            application.setAdditionalProfiles(BulkImportRunner.PROFILE);
+            System.exit(SpringApplication.exit(application.run(args)));
+        }
+        application.run(args);
     }
 
     @Bean
@@ -0,0 +1,13 @@
+package com.hugscape.catalog;
+
+/**
+ * A request parameter or body the client got wrong: an unknown sort, view or format, a malformed
+ * cursor, an out-of-range limit. Answered with 400 and the message; any other exception is a
+ * server error, even an {@link IllegalArgumentException} from our own code.
+ */
+public class BadRequestException extends IllegalArgumentException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
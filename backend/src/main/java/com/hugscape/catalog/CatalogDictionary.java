@@ -0,0 +1,93 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Distinct categories and brands of active products, with the number of active products for each.
+ *
+ * Both dictionaries are small, so every change publishes a fresh immutable copy and reads
+ * return it as-is without touching the catalog.
+ */
+@Component
+public class CatalogDictionary implements CatalogListener {
+
+    private volatile Dictionary categories = Dictionary.EMPTY;
+    private volatile Dictionary brands = Dictionary.EMPTY;
+
+    @Override
+    public synchronized void catalogLoaded(CatalogSnapshot snapshot) {
+        Map<String, Integer> categoryCounts = new TreeMap<>();
+        Map<String, Integer> brandCounts = new TreeMap<>();
+        for (Product product : snapshot.getActiveProducts()) {
+            adjust(categoryCounts, product.getCategory(), 1);
+            adjust(brandCounts, product.getBrand(), 1);
+        }
+        categories = new Dictionary(categoryCounts);
+        brands = new Dictionary(brandCounts);
+    }
+
+    @Override
+    public synchronized void productChanged(Product previous, Product current, CatalogSnapshot snapshot) {
+        categories = categories.update(previous, current, Product::getCategory);
+        brands = brands.update(previous, current, Product::getBrand);
+    }
+
+    public List<String> getCategories() {
+        return categories.values;
+    }
+
+    public Map<String, Integer> getCategoryCounts() {
+        return categories.counts;
+    }
+
+    public List<String> getBrands() {
+        return brands.values;
+    }
+
+    public Map<String, Integer> getBrandCounts() {
+        return brands.counts;
+    }
+
+    private static void adjust(Map<String, Integer> counts, String value, int delta) {
+        if (value == null || value.trim().isEmpty() || (delta < 0 && !counts.containsKey(value))) {
+            return;
+        }
+        counts.merge(value, delta, (count, change) -> count + change > 0 ? count + change : null);
+    }
+
+    private static boolean isActive(Product product) {
+        return product != null && Boolean.TRUE.equals(product.getIsActive());
+    }
+
+    private static final class Dictionary {
+
+        static final Dictionary EMPTY = new Dictionary(new TreeMap<>());
+
+        final Map<String, Integer> counts;
+        final List<String> values;
+
+        Dictionary(Map<String, Integer> counts) {
+            this.counts = Collections.unmodifiableMap(counts);
+            this.values = List.copyOf(counts.keySet());
+        }
+
+        Dictionary update(Product previous, Product current, Function<Product, String> field) {
+            String before = isActive(previous) ? field.apply(previous) : null;
+            String after = isActive(current) ? field.apply(current) : null;
+            if (before == null ? after == null : before.equals(after)) {
+                return this;
+            }
+            Map<String, Integer> updated = new TreeMap<>(counts);
+            adjust(updated, before, -1);
+            adjust(updated, after, 1);
+            return new Dictionary(updated);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+
+/**
+ * Callback for components that maintain derived read models on top of {@link ProductCatalog}.
+ *
+ * Callbacks run after the change has committed and the new snapshot is published,
+ * one at a time and in commit order. Implementations should be quick and must not call back
+ * into the database.
+ */
+public interface CatalogListener {
+
+    // Called under the catalog's write lock right before it is (re)loaded from the database, so changes not yet
+    // written can be written first; no other catalog change can land in between
+    default void beforeLoad() {
+    }
+
+    // Called after the whole catalog was (re)loaded from the database
+    void catalogLoaded(CatalogSnapshot snapshot);
+
+    // Called after a single product changed; previous is null for newly created products
+    void productChanged(Product previous, Product current, CatalogSnapshot snapshot);
+
+    // Called after only the product's stock changed, with the new copy of the product; listeners that do not depend on stock ignore it
+    default void stockChanged(Product product, int previousStock, CatalogSnapshot snapshot) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.hugscape.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hugscape.monitoring.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size-bounded cache of already-encoded JSON responses for hot catalog endpoints.
+ *
+ * Keys must include the catalog or product ETag, so an entry can never be served for a newer
+ * catalog than the one it was rendered from. Entries made obsolete by a write are therefore
+ * never looked up again and simply age out; eviction is by encoded size and approximate recency,
+ * without a global lock.
+ */
+@Component
+public class CatalogResponseCache implements MeterBinder {
+
+    private static final String PRODUCT_KEY_PREFIX = "product:";
+
+    // Bodies smaller than this are not worth a gzip variant
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${catalog.response-cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    private Cache<String, CachedResponse> entries;
+
+    private final CacheStats stats = new CacheStats();
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> (int) Math.min(Integer.MAX_VALUE, response.size()))
+                .build();
+    }
+
+    // Cache key for a single product
+    public static String productKey(Long id, String eTag) {
+        return PRODUCT_KEY_PREFIX + id + ":" + eTag;
+    }
+
+    // Whether an Accept-Encoding header allows gzip, honouring q-values such as "gzip;q=0"
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double wildcard = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return (gzip >= 0 ? gzip : wildcard) > 0;
+    }
+
+    // Cached encoding of the value, rendering it on a miss
+    public CachedResponse get(String key, Supplier<?> value) {
+        return lookup(key, () -> render(value.get(), null));
+    }
+
+    // Cached encoding of a listing page in the given view, keeping its next-page cursor alongside the body
+    public CachedResponse getPage(String key, Supplier<CursorPage> page, ProductView view) {
+        return lookup(key, () -> {
+            CursorPage rendered = page.get();
+            return render(view.render(rendered.getItems()), rendered.getNextCursor());
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        stats.bindTo(registry, "catalog.responses", entries, Cache::estimatedSize);
+    }
+
+    private CachedResponse lookup(String key, Supplier<CachedResponse> loader) {
+        CachedResponse cached = entries.getIfPresent(key);
+        if (cached != null) {
+            stats.hit();
+            return cached;
+        }
+        stats.miss();
+        // Render outside the cache so a large listing never blocks other keys; concurrent misses on one key just render twice
+        CachedResponse rendered = loader.get();
+        if (rendered.size() <= maxBytes) {
+            entries.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    private CachedResponse render(Object value, String nextCursor) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new CachedResponse(json, json.length >= GZIP_MIN_BYTES ? gzip(json) : null, nextCursor);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static final class CachedResponse {
+
+        private final byte[] json;
+        private final byte[] gzippedJson;
+        private final String nextCursor;
+
+        CachedResponse(byte[] json, byte[] gzippedJson, String nextCursor) {
+            this.json = json;
+            this.gzippedJson = gzippedJson;
+            this.nextCursor = nextCursor;
+        }
+
+        public byte[] getJson() { return json; }
+
+        // Null when the body is too small to be worth compressing
+        public byte[] getGzippedJson() { return gzippedJson; }
+
+        public String getNextCursor() { return nextCursor; }
+
+        long size() {
+            return json.length + (gzippedJson == null ? 0 : gzippedJson.length);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable, versioned view of the product catalog.
+ *
+ * A snapshot is never modified after construction: writes produce a new snapshot
+ * via {@link #withProduct(Product, long)} which {@link ProductCatalog} swaps in atomically.
+ * Products held here are detached copies, so they are safe to serialize outside a session.
+ *
+ * A new snapshot is derived from the previous one rather than rebuilt: each ordered list has the
+ * changed product replaced at its position in the order, lists and indexes the product does not
+ * appear in are shared, the price index is patched, and the facet index is carried over while
+ * the set of active products stays the same.
+ */
+public final class CatalogSnapshot {
+
+    private static final Product[] NO_PRODUCTS = new Product[0];
+
+    private static final Comparator<Product> BY_ID = ProductSort.ID.comparator();
+
+    private final long version;
+
+    // All products, including inactive ones, ordered by id; productVersions[i] belongs to products[i]
+    private final List<Product> products;
+    private final long[] productVersions;
+
+    private final List<Product> activeProducts;
+    private final Map<String, List<Product>> activeByCategory;
+    private final Map<String, List<Product>> activeByBrand;
+    private final Map<String, List<Product>> activeBySize;
+
+    // Orderings of the active products other than id and price, sorted on first use
+    private final Map<ProductSort, List<Product>> sortedActiveProducts;
+
+    // Built on first facet query, by one reader while any others wait for it
+    private volatile FacetIndex facetIndex;
+
+    // Built on first price range or price-ordered listing, likewise
+    private volatile PriceIndex priceIndex;
+
+    private CatalogSnapshot(long version, List<Product> products, long[] productVersions, List<Product> activeProducts,
+                            Map<String, List<Product>> activeByCategory, Map<String, List<Product>> activeByBrand,
+                            Map<String, List<Product>> activeBySize, Map<ProductSort, List<Product>> sortedActiveProducts,
+                            FacetIndex facetIndex, PriceIndex priceIndex) {
+        this.version = version;
+        this.products = products;
+        this.productVersions = productVersions;
+        this.activeProducts = activeProducts;
+        this.activeByCategory = activeByCategory;
+        this.activeByBrand = activeByBrand;
+        this.activeBySize = activeBySize;
+        this.sortedActiveProducts = sortedActiveProducts;
+        this.facetIndex = facetIndex;
+        this.priceIndex = priceIndex;
+    }
+
+    public static CatalogSnapshot of(long version, Collection<Product> products) {
+        Product[] byId = products.toArray(NO_PRODUCTS);
+        Arrays.sort(byId, BY_ID);
+        long[] versions = new long[byId.length];
+        Arrays.fill(versions, version);
+
+        List<Product> active = new ArrayList<>();
+        Map<String, List<Product>> byCategory = new HashMap<>();
+        Map<String, List<Product>> byBrand = new HashMap<>();
+        Map<String, List<Product>> bySize = new HashMap<>();
+        for (Product product : byId) {
+            if (!isActive(product)) {
+                continue;
+            }
+            active.add(product);
+            for (String category : keys(product, CatalogSnapshot::categories)) {
+                byCategory.computeIfAbsent(category, key -> new ArrayList<>()).add(product);
+            }
+            for (String brand : keys(product, CatalogSnapshot::brands)) {
+                byBrand.computeIfAbsent(brand, key -> new ArrayList<>()).add(product);
+            }
+            for (String size : keys(product, Product::getSizes)) {
+                bySize.computeIfAbsent(size, key -> new ArrayList<>()).add(product);
+            }
+        }
+        return new CatalogSnapshot(version, wrap(byId), versions, Collections.unmodifiableList(active),
+                freeze(byCategory), freeze(byBrand), freeze(bySize), new ConcurrentHashMap<>(), null, null);
+    }
+
+    // Returns a new snapshot with the given product added or replaced
+    public CatalogSnapshot withProduct(Product product, long newVersion) {
+        int index = indexOf(product.getId());
+        Product previous = index >= 0 ? products.get(index) : null;
+
+        long[] versions;
+        if (index >= 0) {
+            versions = productVersions.clone();
+            versions[index] = newVersion;
+        } else {
+            int at = -index - 1;
+            versions = new long[productVersions.length + 1];
+            System.arraycopy(productVersions, 0, versions, 0, at);
+            versions[at] = newVersion;
+            System.arraycopy(productVersions, at, versions, at + 1, productVersions.length - at);
+        }
+
+        // Only active products appear in the derived lists and indexes
+        Product wasActive = isActive(previous) ? previous : null;
+        Product isActive = isActive(product) ? product : null;
+
+        Map<ProductSort, List<Product>> sorted = new ConcurrentHashMap<>();
+        sortedActiveProducts.forEach((sort, list) -> sorted.put(sort, replace(list, sort.comparator(), wasActive, isActive)));
+
+        List<Product> active = replace(activeProducts, BY_ID, wasActive, isActive);
+
+        // Same active products means same ordinals, so the facet index only needs this product's bits moved
+        FacetIndex facets = facetIndex;
+        if (facets != null) {
+            facets = wasActive != null && isActive != null
+                    ? facets.withProduct(active, Collections.binarySearch(active, isActive, BY_ID), wasActive, isActive)
+                    : null;
+        }
+
+        PriceIndex prices = priceIndex;
+        if (prices != null) {
+            prices = prices.withProduct(wasActive, isActive);
+        }
+
+        return new CatalogSnapshot(newVersion,
+                replace(products, BY_ID, previous, product),
+                versions,
+                active,
+                replaceIn(activeByCategory, CatalogSnapshot::categories, wasActive, isActive),
+                replaceIn(activeByBrand, CatalogSnapshot::brands, wasActive, isActive),
+                replaceIn(activeBySize, Product::getSizes, wasActive, isActive),
+                sorted,
+                facets,
+                prices);
+    }
+
+    // Returns a new snapshot in which the product's stock is changed. The product is copied like any other
+    // change, so earlier snapshots, and whatever is being rendered from them, keep the stock they had.
+    // No ordering depends on stock: every list keeps its order and only the facet index moves a bit.
+    public CatalogSnapshot withStock(Long id, int stock, long newVersion) {
+        int index = indexOf(id);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown product: " + id);
+        }
+        return withProduct(withStockQuantity(products.get(index), stock), newVersion);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Optional<Product> getProduct(Long id) {
+        int index = indexOf(id);
+        return index >= 0 ? Optional.of(products.get(index)) : Optional.empty();
+    }
+
+    // Catalog version at which the product last changed
+    public OptionalLong getProductVersion(Long id) {
+        int index = indexOf(id);
+        return index >= 0 ? OptionalLong.of(productVersions[index]) : OptionalLong.empty();
+    }
+
+    // All products, including inactive ones, ordered by id
+    public Collection<Product> getAllProducts() {
+        return products;
+    }
+
+    // Active products ordered by id
+    public List<Product> getActiveProducts() {
+        return activeProducts;
+    }
+
+    public List<Product> getActiveProducts(ProductSort sort) {
+        if (sort == ProductSort.ID) {
+            return activeProducts;
+        }
+        if (sort == ProductSort.PRICE) {
+            return getPriceIndex().ordered();
+        }
+        return sortedActiveProducts.computeIfAbsent(sort, key -> Collections.unmodifiableList(key.sort(activeProducts)));
+    }
+
+    public List<Product> getActiveProductsByCategory(String category) {
+        return activeByCategory.getOrDefault(normalize(category), List.of());
+    }
+
+    public List<Product> getActiveProductsByBrand(String brand) {
+        return activeByBrand.getOrDefault(normalize(brand), List.of());
+    }
+
+    public List<Product> getActiveProductsBySize(String size) {
+        return activeBySize.getOrDefault(normalize(size), List.of());
+    }
+
+    // Active products priced from minCents to maxCents inclusive, cheapest first
+    public List<Product> getActiveProductsByPriceRange(long minCents, long maxCents) {
+        return getPriceIndex().range(minCents, maxCents);
+    }
+
+    public FacetIndex getFacetIndex() {
+        FacetIndex index = facetIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = facetIndex;
+                if (index == null) {
+                    index = new FacetIndex(activeProducts);
+                    facetIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    public PriceIndex getPriceIndex() {
+        PriceIndex index = priceIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = priceIndex;
+                if (index == null) {
+                    index = PriceIndex.of(activeProducts);
+                    priceIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    // Copy of a product with another stock; the collections are unmodifiable already and shared
+    private static Product withStockQuantity(Product source, int stock) {
+        Product copy = new Product();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        copy.setPrice(source.getPrice());
+        copy.setPriceCents(source.getPriceCents());
+        copy.setCategory(source.getCategory());
+        copy.setSizes(source.getSizes());
+        copy.setColors(source.getColors());
+        copy.setImages(source.getImages());
+        copy.setStockQuantity(stock);
+        copy.setBrand(source.getBrand());
+        copy.setMaterial(source.getMaterial());
+        copy.setCareInstructions(source.getCareInstructions());
+        copy.setIsActive(source.getIsActive());
+        return copy;
+    }
+
+    static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Copy of an ordered list with previous taken out and current put in at its place in the order.
+    // Either may be null; the list itself is returned when neither is in it.
+    static List<Product> replace(List<Product> ordered, Comparator<? super Product> order, Product previous, Product current) {
+        int at = previous == null ? -1 : Collections.binarySearch(ordered, previous, order);
+        if (at < 0 && current == null) {
+            return ordered;
+        }
+        Product[] items = ordered.toArray(NO_PRODUCTS);
+        if (at >= 0 && current != null && order.compare(previous, current) == 0) {
+            items[at] = current;
+            return wrap(items);
+        }
+        int size = items.length;
+        if (at >= 0) {
+            System.arraycopy(items, at + 1, items, at, size - at - 1);
+            size--;
+        }
+        if (current == null) {
+            return wrap(Arrays.copyOf(items, size));
+        }
+        int insertAt = -Arrays.binarySearch(items, 0, size, current, order) - 1;
+        Product[] result = new Product[size + 1];
+        System.arraycopy(items, 0, result, 0, insertAt);
+        result[insertAt] = current;
+        System.arraycopy(items, insertAt, result, insertAt + 1, size - insertAt);
+        return wrap(result);
+    }
+
+    // Index of the product in products, or (-(insertion point) - 1) when there is none
+    private int indexOf(Long id) {
+        if (id == null) {
+            return -1;
+        }
+        int low = 0;
+        int high = products.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = products.get(middle).getId().compareTo(id);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // Copy of a keyed index with previous moved out of the lists of its keys and current into those of its own
+    private static Map<String, List<Product>> replaceIn(Map<String, List<Product>> index,
+                                                        Function<Product, Collection<String>> field,
+                                                        Product previous, Product current) {
+        Set<String> before = keys(previous, field);
+        Set<String> after = keys(current, field);
+        if (before.isEmpty() && after.isEmpty()) {
+            return index;
+        }
+        Map<String, List<Product>> updated = new HashMap<>(index);
+        Set<String> changed = new HashSet<>(before);
+        changed.addAll(after);
+        for (String key : changed) {
+            List<Product> list = replace(index.getOrDefault(key, List.of()), BY_ID,
+                    before.contains(key) ? previous : null, after.contains(key) ? current : null);
+            if (list.isEmpty()) {
+                updated.remove(key);
+            } else {
+                updated.put(key, list);
+            }
+        }
+        return Collections.unmodifiableMap(updated);
+    }
+
+    // Normalized, non-blank values of a field, or none for a null product
+    private static Set<String> keys(Product product, Function<Product, Collection<String>> field) {
+        if (product == null) {
+            return Set.of();
+        }
+        Collection<String> values = field.apply(product);
+        if (values == null || values.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> keys = new HashSet<>();
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                keys.add(normalize(value));
+            }
+        }
+        return keys;
+    }
+
+    private static Collection<String> categories(Product product) {
+        return product.getCategory() == null ? null : List.of(product.getCategory());
+    }
+
+    private static Collection<String> brands(Product product) {
+        return product.getBrand() == null ? null : List.of(product.getBrand());
+    }
+
+    private static boolean isActive(Product product) {
+        return product != null && Boolean.TRUE.equals(product.getIsActive());
+    }
+
+    private static List<Product> wrap(Product[] items) {
+        return Collections.unmodifiableList(Arrays.asList(items));
+    }
+
+    private static Map<String, List<Product>> freeze(Map<String, List<Product>> index) {
+        Map<String, List<Product>> frozen = new HashMap<>();
+        index.forEach((key, products) -> frozen.put(key, Collections.unmodifiableList(products)));
+        return Collections.unmodifiableMap(frozen);
+    }
+}
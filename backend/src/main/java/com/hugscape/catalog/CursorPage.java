@@ -0,0 +1,88 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a product listing: a keyset page of a sorted listing, or a page by position of a
+ * listing without a sort key, such as search results in relevance order.
+ */
+public final class CursorPage {
+
+    private static final String POSITION_CURSOR = "POSITION";
+
+    private final List<Product> items;
+    private final String nextCursor;
+
+    private CursorPage(List<Product> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Single page holding the whole list
+    public static CursorPage all(List<Product> products) {
+        return new CursorPage(products, null);
+    }
+
+    // Page of up to limit products following the cursor; products must already be in sort order
+    public static CursorPage of(List<Product> products, ProductSort sort, String cursor, int limit) {
+        int start = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            int position = Collections.binarySearch(products, sort.decodeCursor(cursor), sort.comparator());
+            start = position >= 0 ? position + 1 : -position - 1;
+        }
+        int end = Math.min(products.size(), start + limit);
+        List<Product> items = products.subList(start, end);
+        String nextCursor = end < products.size() && !items.isEmpty()
+                ? sort.cursorAfter(items.get(items.size() - 1))
+                : null;
+        return new CursorPage(items, nextCursor);
+    }
+
+    // Page of up to limit products following the cursor, in the list's own order
+    public static CursorPage byPosition(List<Product> products, String cursor, int limit) {
+        int start = cursor == null || cursor.isEmpty() ? 0 : Math.min(decodePosition(cursor), products.size());
+        int end = (int) Math.min(products.size(), (long) start + limit);
+        String nextCursor = end < products.size() ? encodePosition(end) : null;
+        return new CursorPage(products.subList(start, end), nextCursor);
+    }
+
+    public List<Product> getItems() {
+        return items;
+    }
+
+    // Null on the last page
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    private static String encodePosition(int position) {
+        String raw = POSITION_CURSOR + "|" + position;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodePosition(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+        if (parts.length != 2 || !parts[0].equals(POSITION_CURSOR)) {
+            throw new BadRequestException("Cursor does not belong to this listing");
+        }
+        try {
+            int position = Integer.parseInt(parts[1]);
+            if (position >= 0) {
+                return position;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new BadRequestException("Malformed cursor");
+    }
+}
@@ -0,0 +1,230 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-value bitmaps over the active products of one {@link CatalogSnapshot}.
+ *
+ * Bit {@code i} stands for the i-th active product, so combining filters is a word-wise AND
+ * and facet counts are the cardinality of that AND with each value's bitmap. Counts for a
+ * dimension ignore that dimension's own filter, so the UI can offer every alternative value.
+ */
+public final class FacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String BRAND = "brand";
+    public static final String SIZE = "size";
+    public static final String COLOR = "color";
+    public static final String MATERIAL = "material";
+    public static final String PRICE_BAND = "priceBand";
+    public static final String IN_STOCK = "inStock";
+
+    public static final List<String> DIMENSIONS = List.of(CATEGORY, BRAND, SIZE, COLOR, MATERIAL, PRICE_BAND, IN_STOCK);
+
+    // Upper bounds (exclusive) of the price bands; anything above the last bound is "50-plus"
+    private static final BigDecimal[] PRICE_BOUNDS = {new BigDecimal("20"), new BigDecimal("30"), new BigDecimal("50")};
+    private static final String[] PRICE_BANDS = {"under-20", "20-30", "30-50", "50-plus"};
+
+    private final List<Product> products;
+
+    // dimension -> normalized value -> bitmap of product ordinals; never modified once the index is built,
+    // so indexes derived with withProduct share whatever did not change
+    private final Map<String, Map<String, BitSet>> bitmaps;
+
+    // dimension -> normalized value -> value as first seen in the catalog
+    private final Map<String, Map<String, String>> labels;
+
+    FacetIndex(List<Product> products) {
+        this.products = products;
+        this.bitmaps = new HashMap<>();
+        this.labels = new HashMap<>();
+        for (String dimension : DIMENSIONS) {
+            bitmaps.put(dimension, new HashMap<>());
+            labels.put(dimension, new HashMap<>());
+        }
+        for (int ordinal = 0; ordinal < products.size(); ordinal++) {
+            Product product = products.get(ordinal);
+            for (String dimension : DIMENSIONS) {
+                for (String value : values(dimension, product)) {
+                    set(dimension, value, ordinal);
+                }
+            }
+        }
+    }
+
+    private FacetIndex(List<Product> products, Map<String, Map<String, BitSet>> bitmaps, Map<String, Map<String, String>> labels) {
+        this.products = products;
+        this.bitmaps = bitmaps;
+        this.labels = labels;
+    }
+
+    // Index over the given products, in which only the product at ordinal changed from previous to current.
+    // Copies just the bitmaps of the values that product left or joined.
+    FacetIndex withProduct(List<Product> products, int ordinal, Product previous, Product current) {
+        FacetIndex updated = new FacetIndex(products, new HashMap<>(bitmaps), new HashMap<>(labels));
+        for (String dimension : DIMENSIONS) {
+            updated.move(dimension, ordinal, normalized(values(dimension, previous)), normalized(values(dimension, current)));
+        }
+        return updated;
+    }
+
+    // Moves the product at ordinal from the before values of a dimension to the after values (normalized -> label),
+    // replacing this index's maps for that dimension with copies
+    private void move(String dimension, int ordinal, Map<String, String> before, Map<String, String> after) {
+        if (before.keySet().equals(after.keySet())) {
+            return;
+        }
+        Map<String, BitSet> dimensionBitmaps = new HashMap<>(bitmaps.get(dimension));
+        Map<String, String> dimensionLabels = new HashMap<>(labels.get(dimension));
+        before.keySet().stream().filter(key -> !after.containsKey(key)).forEach(key -> {
+            BitSet bitmap = (BitSet) dimensionBitmaps.get(key).clone();
+            bitmap.clear(ordinal);
+            dimensionBitmaps.put(key, bitmap);
+        });
+        after.forEach((key, label) -> {
+            if (!before.containsKey(key)) {
+                BitSet existing = dimensionBitmaps.get(key);
+                BitSet bitmap = existing == null ? new BitSet(products.size()) : (BitSet) existing.clone();
+                bitmap.set(ordinal);
+                dimensionBitmaps.put(key, bitmap);
+                dimensionLabels.putIfAbsent(key, label);
+            }
+        });
+        bitmaps.put(dimension, dimensionBitmaps);
+        labels.put(dimension, dimensionLabels);
+    }
+
+    // Products matching every given filter (dimension -> value), one page at a time, plus facet counts
+    public Result query(Map<String, String> filters, int page, int pageSize) {
+        Map<String, BitSet> selected = new HashMap<>();
+        filters.forEach((dimension, value) -> {
+            if (value != null && !value.isBlank() && bitmaps.containsKey(dimension)) {
+                selected.put(dimension, bitmaps.get(dimension).getOrDefault(CatalogSnapshot.normalize(value), new BitSet()));
+            }
+        });
+
+        BitSet matches = intersect(selected.values());
+        int total = matches.cardinality();
+        // In long: page * pageSize overflows int for large pages, which would wrap around to an early page
+        long skip = (long) page * pageSize;
+        List<Product> pageItems = new ArrayList<>(skip >= total ? 0 : Math.min(pageSize, total));
+        if (skip < total) {
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && pageItems.size() < pageSize; ordinal = matches.nextSetBit(ordinal + 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    pageItems.add(products.get(ordinal));
+                }
+            }
+        }
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        for (String dimension : DIMENSIONS) {
+            Map<String, BitSet> others = new HashMap<>(selected);
+            others.remove(dimension);
+            BitSet base = others.size() == selected.size() ? matches : intersect(others.values());
+            facets.put(dimension, counts(dimension, base));
+        }
+        return new Result(pageItems, total, facets);
+    }
+
+    private Map<String, Integer> counts(String dimension, BitSet base) {
+        Map<String, Integer> counts = new TreeMap<>();
+        Map<String, String> dimensionLabels = labels.get(dimension);
+        bitmaps.get(dimension).forEach((value, bitmap) -> {
+            BitSet intersection = (BitSet) bitmap.clone();
+            intersection.and(base);
+            int count = intersection.cardinality();
+            if (count > 0) {
+                counts.put(dimensionLabels.get(value), count);
+            }
+        });
+        return counts;
+    }
+
+    private BitSet intersect(Collection<BitSet> filters) {
+        BitSet result = new BitSet(products.size());
+        result.set(0, products.size());
+        for (BitSet filter : filters) {
+            result.and(filter);
+        }
+        return result;
+    }
+
+    private void set(String dimension, String value, int ordinal) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String key = CatalogSnapshot.normalize(value);
+        bitmaps.get(dimension).computeIfAbsent(key, k -> new BitSet(products.size())).set(ordinal);
+        labels.get(dimension).putIfAbsent(key, value.trim());
+    }
+
+    // Raw values of one dimension for a product; blanks are skipped when indexing
+    private static Collection<String> values(String dimension, Product product) {
+        Collection<String> values = switch (dimension) {
+            case CATEGORY -> Collections.singletonList(product.getCategory());
+            case BRAND -> Collections.singletonList(product.getBrand());
+            case MATERIAL -> Collections.singletonList(product.getMaterial());
+            case SIZE -> product.getSizes();
+            case COLOR -> product.getColors();
+            case PRICE_BAND -> Collections.singletonList(priceBand(product.getPrice()));
+            case IN_STOCK -> List.of(String.valueOf(product.getStockQuantity() != null && product.getStockQuantity() > 0));
+            default -> throw new IllegalArgumentException("Unknown facet: " + dimension);
+        };
+        return values == null ? List.of() : values;
+    }
+
+    // Normalized value -> label, without blanks
+    private static Map<String, String> normalized(Collection<String> values) {
+        Map<String, String> normalized = new HashMap<>();
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                normalized.putIfAbsent(CatalogSnapshot.normalize(value), value.trim());
+            }
+        }
+        return normalized;
+    }
+
+    private static String priceBand(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        for (int i = 0; i < PRICE_BOUNDS.length; i++) {
+            if (price.compareTo(PRICE_BOUNDS[i]) < 0) {
+                return PRICE_BANDS[i];
+            }
+        }
+        return PRICE_BANDS[PRICE_BANDS.length - 1];
+    }
+
+    public static final class Result {
+
+        private final List<Product> products;
+        private final int total;
+        private final Map<String, Map<String, Integer>> facets;
+
+        Result(List<Product> products, int total, Map<String, Map<String, Integer>> facets) {
+            this.products = Collections.unmodifiableList(products);
+            this.total = total;
+            this.facets = Collections.unmodifiableMap(facets);
+        }
+
+        public List<Product> getProducts() { return products; }
+
+        public int getTotal() { return total; }
+
+        public Map<String, Map<String, Integer>> getFacets() { return facets; }
+    }
+}
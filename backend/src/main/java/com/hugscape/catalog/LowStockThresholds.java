@@ -0,0 +1,34 @@
+package com.hugscape.catalog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stock levels below which a product counts as low on stock: {@code stock.low-stock.threshold}
+ * for every category, overridden per category with e.g. {@code stock.low-stock.categories.baby=20}.
+ */
+@Component
+@ConfigurationProperties(prefix = "stock.low-stock")
+public class LowStockThresholds {
+
+    private int threshold = 10;
+
+    // Category (lower case) -> threshold
+    private Map<String, Integer> categories = new HashMap<>();
+
+    public int thresholdFor(String category) {
+        if (category == null) {
+            return threshold;
+        }
+        return categories.getOrDefault(CatalogSnapshot.normalize(category), threshold);
+    }
+
+    public int getThreshold() { return threshold; }
+    public void setThreshold(int threshold) { this.threshold = threshold; }
+
+    public Map<String, Integer> getCategories() { return categories; }
+    public void setCategories(Map<String, Integer> categories) { this.categories = categories; }
+}
@@ -0,0 +1,111 @@
+package com.hugscape.catalog;
+
+import com.hugscape.dto.LowStockAlert;
+import com.hugscape.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Active products below their category's low-stock threshold, kept up to date from every catalog
+ * change instead of scanning for them on each request.
+ *
+ * Whenever a product enters or leaves the set, a {@link LowStockAlert} is published as an
+ * application event, synchronously and in commit order; listeners must hand it off quickly.
+ */
+@Component
+public class LowStockTracker implements CatalogListener {
+
+    @Autowired
+    private LowStockThresholds thresholds;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Guarded by this; ordered by id
+    private final Map<Long, Product> lowStock = new TreeMap<>();
+
+    // Immutable copy of lowStock's values, or null after a change until the next read copies it again,
+    // so a run of stock changes to low products costs one copy instead of one per change
+    private volatile List<Product> products = List.of();
+
+    @Override
+    public synchronized void catalogLoaded(CatalogSnapshot snapshot) {
+        Map<Long, Product> previous = new TreeMap<>(lowStock);
+        lowStock.clear();
+        for (Product product : snapshot.getActiveProducts()) {
+            if (isLow(product)) {
+                lowStock.put(product.getId(), product);
+            }
+        }
+        products = null;
+
+        // A reload may follow changes made outside ProductService, e.g. a bulk import
+        previous.forEach((id, product) -> {
+            if (!lowStock.containsKey(id)) {
+                publish(LowStockAlert.Type.LEFT, snapshot.getProduct(id).orElse(product), snapshot);
+            }
+        });
+        lowStock.forEach((id, product) -> {
+            if (!previous.containsKey(id)) {
+                publish(LowStockAlert.Type.ENTERED, product, snapshot);
+            }
+        });
+    }
+
+    @Override
+    public void productChanged(Product previous, Product current, CatalogSnapshot snapshot) {
+        update(current, snapshot);
+    }
+
+    @Override
+    public void stockChanged(Product product, int previousStock, CatalogSnapshot snapshot) {
+        update(product, snapshot);
+    }
+
+    // Active products below their threshold, ordered by id
+    public List<Product> getLowStockProducts() {
+        List<Product> list = products;
+        if (list == null) {
+            synchronized (this) {
+                list = products;
+                if (list == null) {
+                    list = List.copyOf(lowStock.values());
+                    products = list;
+                }
+            }
+        }
+        return list;
+    }
+
+    private synchronized void update(Product current, CatalogSnapshot snapshot) {
+        boolean wasLow = lowStock.containsKey(current.getId());
+        boolean low = isLow(current);
+        if (low) {
+            lowStock.put(current.getId(), current);
+        } else if (wasLow) {
+            lowStock.remove(current.getId());
+        } else {
+            return;
+        }
+        products = null;
+        if (low != wasLow) {
+            publish(low ? LowStockAlert.Type.ENTERED : LowStockAlert.Type.LEFT, current, snapshot);
+        }
+    }
+
+    private boolean isLow(Product product) {
+        return Boolean.TRUE.equals(product.getIsActive())
+                && product.getStockQuantity() != null
+                && product.getStockQuantity() < thresholds.thresholdFor(product.getCategory());
+    }
+
+    private void publish(LowStockAlert.Type type, Product product, CatalogSnapshot snapshot) {
+        eventPublisher.publishEvent(LowStockAlert.of(type, product,
+                thresholds.thresholdFor(product.getCategory()), snapshot.getVersion()));
+    }
+}
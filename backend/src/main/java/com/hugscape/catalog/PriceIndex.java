@@ -0,0 +1,130 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The active products of one {@link CatalogSnapshot} in {@link ProductSort#PRICE} order, with
+ * their prices as whole cents in a parallel {@code long[]}.
+ *
+ * A price range is two binary searches over the cents and a sublist view of the ordered
+ * products, so range queries cost O(log n) plus whatever the caller reads, without boxing or
+ * {@link BigDecimal} arithmetic. Products without a price sort first and never match a range.
+ *
+ * Building and patching read the cents {@link ProductCatalog} stores on its products, so neither
+ * converts prices; only products whose cents tie compare their prices.
+ */
+public final class PriceIndex {
+
+    // Same order as ProductSort.PRICE: cents order prices, and ties in cents fall back to the prices themselves
+    private static final Comparator<Product> ORDER = Comparator
+            .comparing(PriceIndex::cents, Comparator.nullsFirst(Comparator.<Long>naturalOrder()))
+            .thenComparing(ProductSort.PRICE.comparator());
+
+    private final List<Product> ordered;
+
+    // Cents of ordered[unpriced...]; the first unpriced products have no price
+    private final long[] cents;
+    private final int unpriced;
+
+    // Index over the active products, in any order
+    static PriceIndex of(List<Product> activeProducts) {
+        return new PriceIndex(sorted(activeProducts));
+    }
+
+    private PriceIndex(List<Product> ordered) {
+        this.ordered = ordered;
+        int nulls = 0;
+        while (nulls < ordered.size() && ordered.get(nulls).getPrice() == null) {
+            nulls++;
+        }
+        this.unpriced = nulls;
+        this.cents = new long[ordered.size() - nulls];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = cents(ordered.get(nulls + i));
+        }
+    }
+
+    // Index in which previous is replaced by current, either of which may be null; no sorting involved
+    PriceIndex withProduct(Product previous, Product current) {
+        List<Product> updated = CatalogSnapshot.replace(ordered, ORDER, previous, current);
+        return updated == ordered ? this : new PriceIndex(updated);
+    }
+
+    // All active products, cheapest first, ties by id
+    public List<Product> ordered() {
+        return ordered;
+    }
+
+    // Products priced from minCents to maxCents inclusive, cheapest first; a view, not a copy
+    public List<Product> range(long minCents, long maxCents) {
+        if (minCents > maxCents) {
+            return List.of();
+        }
+        int from = unpriced + (minCents == Long.MIN_VALUE ? 0 : firstAbove(minCents - 1));
+        int to = unpriced + firstAbove(maxCents);
+        return ordered.subList(from, to);
+    }
+
+    private static List<Product> sorted(List<Product> products) {
+        Product[] items = products.toArray(new Product[0]);
+        Arrays.sort(items, ORDER);
+        return Collections.unmodifiableList(Arrays.asList(items));
+    }
+
+    // Cents stored on the product, or computed for products the catalog did not detach
+    private static Long cents(Product product) {
+        Long cents = product.getPriceCents();
+        if (cents == null && product.getPrice() != null) {
+            cents = toCents(product.getPrice());
+        }
+        return cents;
+    }
+
+    // Prices are stored with two decimals (NUMERIC(38, 2)); rounding only matters for unsaved input,
+    // and keeps the cents in the same order as the prices
+    static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    // Smallest number of cents that is at least the given amount, e.g. for a lower price bound
+    public static long ceilCents(double amount) {
+        return (long) Math.ceil(scaled(amount));
+    }
+
+    // Largest number of cents that is at most the given amount, e.g. for an upper price bound
+    public static long floorCents(double amount) {
+        return (long) Math.floor(scaled(amount));
+    }
+
+    // Amount in cents, snapped to the nearest cent when binary rounding left it a hair off (0.29 * 100)
+    private static double scaled(double amount) {
+        if (Double.isNaN(amount)) {
+            throw new BadRequestException("Price must be a number");
+        }
+        double scaled = amount * 100;
+        double nearest = Math.rint(scaled);
+        return Math.abs(scaled - nearest) < 1e-6 ? nearest : scaled;
+    }
+
+    // Index of the first price > value, or cents.length when there is none
+    private int firstAbove(long value) {
+        int low = 0;
+        int high = cents.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cents[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
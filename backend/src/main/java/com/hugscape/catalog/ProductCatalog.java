@@ -0,0 +1,203 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+import com.hugscape.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the current {@link CatalogSnapshot} and swaps in a new one after every product write commits.
+ *
+ * Reads are a single volatile load and never touch the database once the catalog is loaded.
+ * Writers are serialized against each other and against the initial load, never against readers.
+ * The write lock is a {@link ReentrantLock} rather than a monitor because loads hold it across a
+ * database query, which would pin a virtual thread to its carrier.
+ */
+@Component
+public class ProductCatalog {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private List<CatalogListener> listeners = List.of();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Process-unique prefix, so versions starting over after a restart never reproduce an old ETag
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile CatalogSnapshot current;
+
+    private long lastVersion;
+
+    // Current snapshot, loaded from the database on first access
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot snapshot = current;
+        return snapshot != null ? snapshot : load(false);
+    }
+
+    // Load the catalog if it has not been yet, so listeners such as the dictionary have seen it
+    public void ensureLoaded() {
+        if (current == null) {
+            load(false);
+        }
+    }
+
+    // Entity tag covering the whole catalog; changes with every write. Weak, like the product tag, since
+    // the same listing is served gzipped or not and a strong tag would claim both bodies are byte-identical.
+    public String catalogETag() {
+        return "W/\"" + epoch + "-" + snapshot().getVersion() + "\"";
+    }
+
+    // Entity tag of a single product; changes only when that product is written
+    public Optional<String> productETag(Long id) {
+        OptionalLong version = snapshot().getProductVersion(id);
+        return version.isPresent()
+                ? Optional.of("W/\"" + epoch + "-p" + id + "-" + version.getAsLong() + "\"")
+                : Optional.empty();
+    }
+
+    // Rebuild the snapshot from the database, e.g. after bulk changes that bypass ProductService
+    public CatalogSnapshot reload() {
+        return load(true);
+    }
+
+    // Reload once startup (including DataInitializer) has finished seeding the database
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    // Patch the snapshot with a saved product once the surrounding transaction commits
+    public void put(Product product) {
+        Product detached = detach(product);
+        afterCommit(() -> apply(detached.getId(), previous -> detached));
+    }
+
+    // Change a product's stock right away, unless that would take it below zero. Only listeners that track
+    // stock are told. False when the product is unknown or the change was refused.
+    public boolean updateStock(Long id, IntUnaryOperator stockQuantity) {
+        writeLock.lock();
+        try {
+            CatalogSnapshot snapshot = current != null ? current : load(false);
+            Optional<Product> product = snapshot.getProduct(id);
+            if (product.isEmpty()) {
+                return false;
+            }
+            int previous = product.get().getStockQuantity() == null ? 0 : product.get().getStockQuantity();
+            int updated = stockQuantity.applyAsInt(previous);
+            if (updated < 0) {
+                return false;
+            }
+            if (updated != previous) {
+                current = snapshot.withStock(id, updated, ++lastVersion);
+                for (CatalogListener listener : listeners) {
+                    listener.stockChanged(current.getProduct(id).orElseThrow(), previous, current);
+                }
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void apply(Long id, UnaryOperator<Product> change) {
+        writeLock.lock();
+        try {
+            // Not loaded yet: the first read will pick the change up from the database
+            if (current == null) {
+                return;
+            }
+            Product previous = current.getProduct(id).orElse(null);
+            Product updated = change.apply(previous);
+            if (updated != null) {
+                current = current.withProduct(updated, ++lastVersion);
+                for (CatalogListener listener : listeners) {
+                    listener.productChanged(previous, updated, current);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private CatalogSnapshot load(boolean force) {
+        writeLock.lock();
+        try {
+            if (current != null && !force) {
+                return current;
+            }
+            for (CatalogListener listener : listeners) {
+                listener.beforeLoad();
+            }
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            List<Product> products = template.execute(status -> productRepository.findAll().stream()
+                    .map(ProductCatalog::detach)
+                    .toList());
+            current = CatalogSnapshot.of(++lastVersion, products);
+            for (CatalogListener listener : listeners) {
+                listener.catalogLoaded(current);
+            }
+            return current;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Copy a managed entity into a plain object with its collections materialized
+    static Product detach(Product source) {
+        Product copy = new Product();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        copy.setPrice(source.getPrice());
+        copy.setPriceCents(source.getPrice() == null ? null : PriceIndex.toCents(source.getPrice()));
+        copy.setCategory(source.getCategory());
+        copy.setSizes(copyOf(source.getSizes()));
+        copy.setColors(copyOf(source.getColors()));
+        copy.setImages(copyOf(source.getImages()));
+        copy.setStockQuantity(source.getStockQuantity());
+        copy.setBrand(source.getBrand());
+        copy.setMaterial(source.getMaterial());
+        copy.setCareInstructions(source.getCareInstructions());
+        copy.setIsActive(source.getIsActive());
+        return copy;
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values == null ? null : Collections.unmodifiableList(new ArrayList<>(values));
+    }
+}
@@ -0,0 +1,187 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over the text fields of active products.
+ *
+ * Terms live in a sorted map so a query token matches every indexed term it is a prefix of,
+ * which is what the type-ahead search box needs; tokens shorter than {@value #MIN_PREFIX_LENGTH}
+ * characters only match whole terms, so they never expand to most of the vocabulary. Each posting
+ * carries a field-weighted score; exact term matches score double. All query tokens must match
+ * (AND semantics).
+ *
+ * The index is never modified once published: a change copies the term map and the postings
+ * of the terms it touches, then swaps the new index in, so a search always sees each product
+ * either before or after a change.
+ */
+@Component
+public class ProductSearchIndex implements CatalogListener {
+
+    static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final int NAME_WEIGHT = 5;
+    private static final int BRAND_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 3;
+    private static final int MATERIAL_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private volatile Index index = new Index(new TreeMap<>());
+
+    // Product id -> indexed terms, kept so a product can be removed without re-tokenizing it; guarded by this
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+    @Override
+    public synchronized void catalogLoaded(CatalogSnapshot snapshot) {
+        // Build off to the side so searches never see a half-populated index
+        TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        documents.clear();
+        for (Product product : snapshot.getActiveProducts()) {
+            Map<String, Integer> terms = terms(product);
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(product.getId(), weight));
+            documents.put(product.getId(), terms);
+        }
+        index = new Index(postings);
+    }
+
+    @Override
+    public synchronized void productChanged(Product previous, Product current, CatalogSnapshot snapshot) {
+        Long id = current.getId();
+        Map<String, Integer> before = documents.getOrDefault(id, Map.of());
+        Map<String, Integer> after = Boolean.TRUE.equals(current.getIsActive()) ? terms(current) : Map.of();
+        if (before.equals(after)) {
+            // E.g. a price or stock change
+            return;
+        }
+        TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>(index.postings);
+        for (String term : before.keySet()) {
+            if (!after.containsKey(term)) {
+                Map<Long, Integer> ids = new HashMap<>(postings.get(term));
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                } else {
+                    postings.put(term, ids);
+                }
+            }
+        }
+        after.forEach((term, weight) -> {
+            if (!weight.equals(before.get(term))) {
+                Map<Long, Integer> existing = postings.get(term);
+                Map<Long, Integer> ids = existing == null ? new HashMap<>() : new HashMap<>(existing);
+                ids.put(id, weight);
+                postings.put(term, ids);
+            }
+        });
+        index = new Index(postings);
+        if (after.isEmpty()) {
+            documents.remove(id);
+        } else {
+            documents.put(id, after);
+        }
+    }
+
+    // Ids of matching products, best match first
+    public List<Long> search(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        Index searched = index;
+        Map<Long, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Long, Integer> tokenScores = searched.match(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Integer> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    // Indexed terms of a product with their field weight
+    private static Map<String, Integer> terms(Product product) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, product.getName(), NAME_WEIGHT);
+        addTerms(terms, product.getBrand(), BRAND_WEIGHT);
+        addTerms(terms, product.getCategory(), CATEGORY_WEIGHT);
+        addTerms(terms, product.getMaterial(), MATERIAL_WEIGHT);
+        addTerms(terms, product.getDescription(), DESCRIPTION_WEIGHT);
+        return Collections.unmodifiableMap(terms);
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Math::max);
+        }
+    }
+
+    // Lower-cased runs of letters and digits
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Index {
+
+        // term -> (product id -> weight); neither the map nor the postings change after construction
+        private final NavigableMap<String, Map<Long, Integer>> postings;
+
+        Index(TreeMap<String, Map<Long, Integer>> postings) {
+            this.postings = postings;
+        }
+
+        // Best score per product over all terms starting with the token, or the term itself for short tokens
+        Map<Long, Integer> match(String token) {
+            Map<Long, Integer> scores = new HashMap<>();
+            NavigableMap<String, Map<Long, Integer>> range = token.length() < MIN_PREFIX_LENGTH
+                    ? postings.subMap(token, true, token, true)
+                    : postings.subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Map<Long, Integer>> term : range.entrySet()) {
+                boolean exact = term.getKey().equals(token);
+                for (Map.Entry<Long, Integer> posting : term.getValue().entrySet()) {
+                    int score = exact ? posting.getValue() * 2 : posting.getValue();
+                    scores.merge(posting.getKey(), score, Math::max);
+                }
+            }
+            return scores;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Stable orderings for catalog listings. Every ordering breaks ties on id, so a
+ * (sort key, id) pair identifies a unique position and can serve as a keyset cursor.
+ */
+public enum ProductSort {
+
+    ID(Comparator.comparing(Product::getId)),
+    PRICE(Comparator.comparing(Product::getPrice, Comparator.nullsFirst(Comparator.<BigDecimal>naturalOrder()))
+            .thenComparing(Product::getId)),
+    NAME(Comparator.comparing(Product::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(Product::getId));
+
+    private final Comparator<Product> comparator;
+
+    ProductSort(Comparator<Product> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<Product> comparator() {
+        return comparator;
+    }
+
+    public static ProductSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown sort: " + value);
+        }
+    }
+
+    // The list itself when already in this order, otherwise a sorted copy
+    public List<Product> sort(List<Product> products) {
+        for (int i = 1; i < products.size(); i++) {
+            if (comparator.compare(products.get(i - 1), products.get(i)) > 0) {
+                List<Product> sorted = new ArrayList<>(products);
+                sorted.sort(comparator);
+                return sorted;
+            }
+        }
+        return products;
+    }
+
+    // Opaque cursor pointing just after the given product
+    public String cursorAfter(Product product) {
+        String key = switch (this) {
+            case ID -> "";
+            case PRICE -> product.getPrice() == null ? "" : product.getPrice().toPlainString();
+            case NAME -> product.getName() == null ? "" : product.getName();
+        };
+        String raw = name() + "|" + product.getId() + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Probe product carrying the sort key and id encoded in a cursor
+    Product decodeCursor(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || !parts[0].equals(name())) {
+            throw new BadRequestException("Cursor does not belong to sort " + name().toLowerCase(Locale.ROOT));
+        }
+        Product probe = new Product();
+        try {
+            probe.setId(Long.valueOf(parts[1]));
+            if (this == PRICE && !parts[2].isEmpty()) {
+                probe.setPrice(new BigDecimal(parts[2]));
+            }
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+        if (this == NAME && !parts[2].isEmpty()) {
+            probe.setName(parts[2]);
+        }
+        return probe;
+    }
+}
@@ -0,0 +1,38 @@
+package com.hugscape.catalog;
+
+import com.hugscape.dto.ProductSummary;
+import com.hugscape.entity.Product;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How much of each product a listing returns.
+ */
+public enum ProductView {
+
+    // The complete product, as returned by /products/{id}
+    FULL,
+
+    // Grid tile fields only, see ProductSummary
+    SUMMARY;
+
+    public static ProductView fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown view: " + value);
+        }
+    }
+
+    public List<?> render(List<Product> products) {
+        return this == SUMMARY ? products.stream().map(ProductSummary::from).toList() : products;
+    }
+
+    public Object render(Product product) {
+        return this == SUMMARY ? ProductSummary.from(product) : product;
+    }
+}
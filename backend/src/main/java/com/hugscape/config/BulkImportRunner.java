@@ -0,0 +1,79 @@
+package com.hugscape.config;
+
+import com.hugscape.dto.ImportReport;
+import com.hugscape.service.BulkFormat;
+import com.hugscape.service.ProductBulkService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Command line bulk import: java -jar app.jar --import=products.csv [--import=more.json]
+// main runs it without a web server and with the import profile, which skips sample data, then exits with this
+// runner's exit code: 0 when every row was imported, 1 when a file could not be imported, 2 when rows were rejected.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class BulkImportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String PROFILE = "import";
+
+    public static final int EXIT_FAILED = 1;
+
+    public static final int EXIT_REJECTED_ROWS = 2;
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportRunner.class);
+
+    private static final String OPTION = "import";
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    private volatile int exitCode;
+
+    // Whether these command line arguments ask for an import rather than the web application
+    public static boolean isImport(String... args) {
+        return new DefaultApplicationArguments(args).containsOption(OPTION);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        // Every file is attempted, so one bad file does not hide the outcome of the others
+        for (String file : args.getOptionValues(OPTION)) {
+            Path path = Path.of(file);
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+                ImportReport report = productBulkService.importProducts(in, BulkFormat.fromFileName(file));
+                if (report.rejected() > 0) {
+                    log.warn("Imported {} with rejected rows: {}", path, report);
+                    // A file that failed outright outranks rejected rows
+                    if (exitCode != EXIT_FAILED) {
+                        exitCode = EXIT_REJECTED_ROWS;
+                    }
+                } else {
+                    log.info("Imported {}: {}", path, report);
+                }
+            } catch (Exception e) {
+                log.error("Import of {} failed", path, e);
+                exitCode = EXIT_FAILED;
+            }
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -4,6 +4,7 @@ import com.hugscape.entity.Product;
 import com.hugscape.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -11,10 +12,11 @@ import java.util.Arrays;
 import java.util.List;
 
 @Component
+@Profile("!loadtest & !" + BulkImportRunner.PROFILE)
 public class DataInitializer implements CommandLineRunner {
     
     @Autowired
-    private ProductRepository productRepository;
+    protected ProductRepository productRepository;
     
     @Override
     public void run(String... args) throws Exception {
@@ -147,9 +149,9 @@ public class DataInitializer implements CommandLineRunner {
         System.out.println("Sample products initialized successfully!");
     }
     
-    private Product createProduct(String name, String description, BigDecimal price, String category,
-                                List<String> sizes, List<String> colors, List<String> images,
-                                Integer stockQuantity, String brand, String material, String careInstructions) {
+    protected Product createProduct(String name, String description, BigDecimal price, String category,
+                                  List<String> sizes, List<String> colors, List<String> images,
+                                  Integer stockQuantity, String brand, String material, String careInstructions) {
         Product product = new Product();
         product.setName(name);
         product.setDescription(description);
@@ -0,0 +1,115 @@
+package com.hugscape.config;
+
+import com.hugscape.entity.Product;
+import com.hugscape.entity.User;
+import com.hugscape.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds a large, deterministic catalog and user population for load tests, in place of the
+ * sample data. Users get the ids 1..{@code loadtest.users} in an empty database, which is what
+ * the load-test driver mints tokens for.
+ */
+@Component
+@Profile("loadtest & !" + BulkImportRunner.PROFILE)
+public class SyntheticCatalogInitializer extends DataInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticCatalogInitializer.class);
+
+    private static final int SAVE_BATCH_SIZE = 1000;
+
+    private static final String[] CATEGORIES = {"nightwear", "boys", "girls", "new-arrivals", "baby", "accessories"};
+    private static final String[] BRANDS = {"Hugscape", "Little Sprout", "Tiny Tots", "Moonbeam", "Playtime"};
+    private static final String[] ADJECTIVES = {"Cozy", "Soft", "Classic", "Printed", "Striped", "Organic", "Festive", "Everyday"};
+    private static final String[] GARMENTS = {"T-Shirt", "Pajamas", "Hoodie", "Dress", "Shorts", "Romper", "Jacket", "Kurta"};
+    private static final String[] MOTIFS = {"Dinosaur", "Unicorn", "Moon & Stars", "Rainbow", "Rocket", "Butterfly", "Safari"};
+    private static final String[] MATERIALS = {"100% Cotton", "Cotton Blend", "Organic Cotton", "Muslin", "Fleece"};
+    private static final List<List<String>> SIZES = List.of(
+            List.of("2T", "3T", "4T"), List.of("3T", "4T", "5T", "6T"), List.of("0-3M", "3-6M", "6-12M"), List.of("S", "M", "L"));
+    private static final List<List<String>> COLORS = List.of(
+            List.of("Blue", "Pink"), List.of("Red", "Green", "Yellow"), List.of("White"), List.of("Purple", "Gray"));
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${loadtest.catalog.size:10000}")
+    private int catalogSize;
+
+    @Value("${loadtest.users:1000}")
+    private int userCount;
+
+    @Value("${loadtest.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(String... args) {
+        if (productRepository.count() == 0) {
+            long start = System.nanoTime();
+            List<Product> products = generateProducts(catalogSize, seed);
+            for (int from = 0; from < products.size(); from += SAVE_BATCH_SIZE) {
+                productRepository.saveAll(products.subList(from, Math.min(from + SAVE_BATCH_SIZE, products.size())));
+            }
+            log.info("Seeded {} synthetic products in {} ms", catalogSize, (System.nanoTime() - start) / 1_000_000);
+        }
+        if (userRepository.count() == 0) {
+            List<User> users = new ArrayList<>(userCount);
+            for (int i = 1; i <= userCount; i++) {
+                users.add(createUser(i));
+            }
+            userRepository.saveAll(users);
+            log.info("Seeded {} synthetic users", userCount);
+        }
+    }
+
+    // Deterministic catalog without ids: the same count and seed always yield the same products.
+    // About one in twenty is inactive.
+    public List<Product> generateProducts(int count, long seed) {
+        Random random = new Random(seed);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String motif = pick(random, MOTIFS);
+            String garment = pick(random, GARMENTS);
+            String material = pick(random, MATERIALS);
+            Product product = createProduct(
+                    pick(random, ADJECTIVES) + " " + garment + " - " + motif,
+                    "A " + material.toLowerCase() + " " + garment.toLowerCase() + " with a "
+                            + motif.toLowerCase() + " print, made for busy little explorers.",
+                    BigDecimal.valueOf(999 + random.nextInt(6000), 2),
+                    pick(random, CATEGORIES),
+                    new ArrayList<>(SIZES.get(random.nextInt(SIZES.size()))),
+                    new ArrayList<>(COLORS.get(random.nextInt(COLORS.size()))),
+                    new ArrayList<>(List.of("product" + i + ".jpg")),
+                    random.nextInt(100),
+                    pick(random, BRANDS),
+                    material,
+                    "Machine wash cold, tumble dry low");
+            product.setIsActive(random.nextInt(20) != 0);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static User createUser(int i) {
+        User user = new User();
+        user.setGoogleId("loadtest-" + i);
+        user.setEmail("loadtest" + i + "@example.com");
+        user.setName("Load Test Parent " + i);
+        user.setEmailVerified(true);
+        user.setIsActive(true);
+        return user;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -1,5 +1,6 @@
 package com.hugscape.controller;
 
+import com.hugscape.dto.UserView;
 import com.hugscape.entity.User;
 import com.hugscape.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -71,12 +72,12 @@ public class AuthController {
     public ResponseEntity<Map<String, Object>> getProfile(@RequestHeader("Authorization") String authHeader) {
         try {
             String token = extractTokenFromHeader(authHeader);
-            var userOpt = userService.getUserFromToken(token);
+            var userOpt = userService.getUserViewFromToken(token);
             
             if (userOpt.isPresent()) {
-                User user = userOpt.get();
+                UserView user = userOpt.get();
                 Map<String, Object> response = new HashMap<>();
-                response.put("user", createUserResponse(user));
+                response.put("user", user.response());
                 return ResponseEntity.ok(response);
             } else {
                 Map<String, Object> errorResponse = new HashMap<>();
@@ -99,16 +100,16 @@ public class AuthController {
         
         try {
             String token = extractTokenFromHeader(authHeader);
-            var userOpt = userService.getUserFromToken(token);
+            var userOpt = userService.getUserViewFromToken(token);
             
             if (userOpt.isPresent()) {
-                User user = userOpt.get();
+                UserView user = userOpt.get();
                 
                 String name = profileUpdate.get("name");
                 String givenName = profileUpdate.get("givenName");
                 String familyName = profileUpdate.get("familyName");
                 
-                User updatedUser = userService.updateUserProfile(user.getId(), name, givenName, familyName);
+                User updatedUser = userService.updateUserProfile(user.id(), name, givenName, familyName);
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("user", createUserResponse(updatedUser));
@@ -132,15 +133,15 @@ public class AuthController {
     public ResponseEntity<Map<String, Object>> refreshToken(@RequestHeader("Authorization") String authHeader) {
         try {
             String token = extractTokenFromHeader(authHeader);
-            var userOpt = userService.getUserFromToken(token);
+            var userOpt = userService.getUserViewFromToken(token);
             
             if (userOpt.isPresent()) {
-                User user = userOpt.get();
+                UserView user = userOpt.get();
                 String newToken = userService.generateUserToken(user);
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("token", newToken);
-                response.put("user", createUserResponse(user));
+                response.put("user", user.response());
                 response.put("message", "Token refreshed successfully");
                 return ResponseEntity.ok(response);
             } else {
@@ -166,18 +167,7 @@ public class AuthController {
     
     // Helper method to create user response
     private Map<String, Object> createUserResponse(User user) {
-        Map<String, Object> userResponse = new HashMap<>();
-        userResponse.put("id", user.getId());
-        userResponse.put("email", user.getEmail());
-        userResponse.put("name", user.getName());
-        userResponse.put("givenName", user.getGivenName());
-        userResponse.put("familyName", user.getFamilyName());
-        userResponse.put("picture", user.getPicture());
-        userResponse.put("locale", user.getLocale());
-        userResponse.put("emailVerified", user.getEmailVerified());
-        userResponse.put("createdAt", user.getCreatedAt());
-        userResponse.put("lastLogin", user.getLastLogin());
-        return userResponse;
+        return UserView.from(user).response();
     }
     
     // Helper method to extract token from Authorization header
@@ -1,72 +1,248 @@
 package com.hugscape.controller;
 
+import com.hugscape.catalog.BadRequestException;
+import com.hugscape.catalog.CatalogResponseCache;
+import com.hugscape.catalog.CatalogResponseCache.CachedResponse;
+import com.hugscape.catalog.CursorPage;
+import com.hugscape.catalog.FacetIndex;
+import com.hugscape.catalog.ProductSort;
+import com.hugscape.catalog.ProductView;
+import com.hugscape.dto.ImportReport;
+import com.hugscape.dto.StockReservation;
 import com.hugscape.entity.Product;
+import com.hugscape.service.BulkFormat;
+import com.hugscape.service.LowStockAlerts;
+import com.hugscape.service.ProductBulkService;
 import com.hugscape.service.ProductService;
+import com.hugscape.service.StockService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 @RestController
 @RequestMapping("/products")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
 public class ProductController {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private StockService stockService;
+    
+    @Autowired
+    private ProductBulkService productBulkService;
+    
+    @Autowired
+    private LowStockAlerts lowStockAlerts;
+    
+    @Autowired
+    private CatalogResponseCache responseCache;
+    
+    @Value("${catalog.http.max-age:0s}")
+    private Duration catalogMaxAge;
+    
     // Get all active products
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllActiveProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+        String eTag = productService.getCatalogETag();
+        if (notModified(request, eTag)) {
+            return null;
+        }
+        ProductView productView = ProductView.fromParam(view);
+        String key = "products?sort=" + sort + "&cursor=" + cursor + "&limit=" + limit + "&view=" + productView + ":" + eTag;
+        ProductSort order = ProductSort.fromParam(sort);
+        CachedResponse cached = responseCache.getPage(key,
+                () -> page(productService.getAllActiveProducts(order), order, sort, cursor, limit), productView);
+        return cachedResponse(cached, request);
     }
     
     // Get product by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id, WebRequest request) {
+        Optional<String> eTag = productService.getProductETag(id);
+        if (eTag.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (notModified(request, eTag.get())) {
+            return null;
+        }
         Optional<Product> product = productService.getProductById(id);
-        return product.map(ResponseEntity::ok)
+        return product.map(body -> cachedResponse(responseCache.get(CatalogResponseCache.productKey(id, eTag.get()), () -> body), request))
                     .orElse(ResponseEntity.notFound().build());
     }
     
     // Get products by category
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
-        List<Product> products = productService.getProductsByCategory(category);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+        String eTag = productService.getCatalogETag();
+        if (notModified(request, eTag)) {
+            return null;
+        }
+        ProductView productView = ProductView.fromParam(view);
+        String key = "category/" + category.trim().toLowerCase(Locale.ROOT)
+                + "?sort=" + sort + "&cursor=" + cursor + "&limit=" + limit + "&view=" + productView + ":" + eTag;
+        CachedResponse cached = responseCache.getPage(key,
+                () -> page(productService.getProductsByCategory(category), ProductSort.ID, sort, cursor, limit), productView);
+        return cachedResponse(cached, request);
     }
     
     // Search products
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String q) {
+    public ResponseEntity<List<?>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (notModified(request, productService.getCatalogETag())) {
+            return null;
+        }
         List<Product> products = productService.searchProducts(q);
-        return ResponseEntity.ok(products);
+        return listResponse(products, null, sort, cursor, limit, view);
     }
     
     // Get products by price range
     @GetMapping("/price-range")
-    public ResponseEntity<List<Product>> getProductsByPriceRange(
+    public ResponseEntity<List<?>> getProductsByPriceRange(
             @RequestParam Double minPrice,
-            @RequestParam Double maxPrice) {
+            @RequestParam Double maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (notModified(request, productService.getCatalogETag())) {
+            return null;
+        }
         List<Product> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+        return listResponse(products, ProductSort.PRICE, sort, cursor, limit, view);
     }
     
     // Get products by size
     @GetMapping("/size/{size}")
-    public ResponseEntity<List<Product>> getProductsBySize(@PathVariable String size) {
+    public ResponseEntity<List<?>> getProductsBySize(
+            @PathVariable String size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (notModified(request, productService.getCatalogETag())) {
+            return null;
+        }
         List<Product> products = productService.getProductsBySize(size);
-        return ResponseEntity.ok(products);
+        return listResponse(products, ProductSort.ID, sort, cursor, limit, view);
     }
     
     // Get products by brand
     @GetMapping("/brand/{brand}")
-    public ResponseEntity<List<Product>> getProductsByBrand(@PathVariable String brand) {
+    public ResponseEntity<List<?>> getProductsByBrand(
+            @PathVariable String brand,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (notModified(request, productService.getCatalogETag())) {
+            return null;
+        }
         List<Product> products = productService.getProductsByBrand(brand);
-        return ResponseEntity.ok(products);
+        return listResponse(products, ProductSort.ID, sort, cursor, limit, view);
+    }
+    
+    // Faceted query combining any subset of filters, with per-facet counts
+    @GetMapping("/query")
+    public ResponseEntity<Map<String, Object>> queryProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String size,
+            @RequestParam(required = false) String color,
+            @RequestParam(required = false) String material,
+            @RequestParam(required = false) String priceBand,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "24") int pageSize,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (page < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (notModified(request, productService.getCatalogETag())) {
+            return null;
+        }
+        Map<String, String> filters = new HashMap<>();
+        filters.put(FacetIndex.CATEGORY, category);
+        filters.put(FacetIndex.BRAND, brand);
+        filters.put(FacetIndex.SIZE, size);
+        filters.put(FacetIndex.COLOR, color);
+        filters.put(FacetIndex.MATERIAL, material);
+        filters.put(FacetIndex.PRICE_BAND, priceBand);
+        filters.put(FacetIndex.IN_STOCK, inStock == null ? null : inStock.toString());
+        
+        FacetIndex.Result result = productService.queryProducts(filters, page, pageSize);
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", ProductView.fromParam(view).render(result.getProducts()));
+        response.put("total", result.getTotal());
+        response.put("page", page);
+        response.put("pageSize", pageSize);
+        response.put("facets", result.getFacets());
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(response);
+    }
+    
+    // Export all active products, streamed as a JSON array (default), NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(required = false) String format) {
+        BulkFormat bulkFormat = BulkFormat.fromParam(format);
+        StreamingResponseBody body = out -> productBulkService.exportActiveProducts(out, bulkFormat);
+        return ResponseEntity.ok()
+                .contentType(bulkFormat.getMediaType())
+                .body(body);
+    }
+    
+    // Bulk import products from a CSV, NDJSON or JSON array body; invalid rows are skipped and reported
+    @PostMapping("/bulk")
+    public ResponseEntity<ImportReport> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        ImportReport report = productBulkService.importProducts(body, BulkFormat.fromContentType(contentType));
+        return ResponseEntity.ok(report);
     }
     
     // Create new product
@@ -98,24 +274,181 @@ public class ProductController {
         return updated ? ResponseEntity.ok().build() : ResponseEntity.badRequest().build();
     }
     
+    // Reserve stock for a checkout
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<?> reserveStock(@PathVariable Long id, @RequestParam int quantity) {
+        OptionalInt available = stockService.getAvailable(id);
+        if (available.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<StockReservation> reservation = stockService.reserve(id, quantity);
+        if (reservation.isPresent()) {
+            return ResponseEntity.ok(reservation.get());
+        }
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Insufficient stock");
+        errorResponse.put("available", stockService.getAvailable(id).orElse(0));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+    
+    // Commit a reservation, taking its units out of stock
+    @PostMapping("/reservations/{reservationId}/commit")
+    public ResponseEntity<?> commitReservation(@PathVariable String reservationId) {
+        StockService.CommitResult result = stockService.commit(reservationId);
+        if (result == StockService.CommitResult.NOT_FOUND) {
+            return ResponseEntity.notFound().build();
+        }
+        if (result == StockService.CommitResult.OUT_OF_STOCK) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Insufficient stock");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        }
+        return ResponseEntity.ok().build();
+    }
+    
+    // Cancel a reservation, returning its units
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<Void> cancelReservation(@PathVariable String reservationId) {
+        boolean cancelled = stockService.cancel(reservationId);
+        return cancelled ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+    
     // Get low stock products
     @GetMapping("/low-stock")
-    public ResponseEntity<List<Product>> getLowStockProducts() {
+    public ResponseEntity<List<?>> getLowStockProducts(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (notModified(request, productService.getCatalogETag())) {
+            return null;
+        }
         List<Product> products = productService.getLowStockProducts();
-        return ResponseEntity.ok(products);
+        return listResponse(products, ProductSort.ID, sort, cursor, limit, view);
+    }
+    
+    // Stream low-stock changes: the current list, then an event each time a product enters or leaves it;
+    // 503 while the stream limit is reached
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamLowStockProducts() {
+        return lowStockAlerts.subscribe()
+                .map(emitter -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build());
     }
     
     // Get all categories
     @GetMapping("/categories")
-    public ResponseEntity<List<String>> getAllCategories() {
+    public ResponseEntity<List<String>> getAllCategories(WebRequest request) {
+        if (notModified(request, productService.getCatalogETag())) {
+            return null;
+        }
         List<String> categories = productService.getAllCategories();
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(categories);
+    }
+    
+    // Active product count per category
+    @GetMapping("/categories/counts")
+    public ResponseEntity<Map<String, Integer>> getCategoryCounts(WebRequest request) {
+        if (notModified(request, productService.getCatalogETag())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(productService.getCategoryCounts());
     }
     
     // Get all brands
     @GetMapping("/brands")
-    public ResponseEntity<List<String>> getAllBrands() {
+    public ResponseEntity<List<String>> getAllBrands(WebRequest request) {
+        if (notModified(request, productService.getCatalogETag())) {
+            return null;
+        }
         List<String> brands = productService.getAllBrands();
-        return ResponseEntity.ok(brands);
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(brands);
+    }
+    
+    // Active product count per brand
+    @GetMapping("/brands/counts")
+    public ResponseEntity<Map<String, Integer>> getBrandCounts(WebRequest request) {
+        if (notModified(request, productService.getCatalogETag())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(productService.getBrandCounts());
+    }
+    
+    // List response with the cursor for the next page, if any, in the X-Next-Cursor header
+    private ResponseEntity<List<?>> listResponse(List<Product> products, ProductSort natural, String sort, String cursor,
+                                                 Integer limit, String view) {
+        CursorPage page = page(products, natural, sort, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(catalogCacheControl());
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(ProductView.fromParam(view).render(page.getItems()));
+    }
+    
+    // Whole list when no paging parameters are given, otherwise one page. The list arrives in its natural
+    // order (null when it has no sort key, e.g. search relevance), which is kept unless a sort is asked for.
+    private CursorPage page(List<Product> products, ProductSort natural, String sort, String cursor, Integer limit) {
+        if (sort == null && cursor == null && limit == null) {
+            return CursorPage.all(products);
+        }
+        int pageSize = limit == null ? MAX_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ProductSort order = sort == null ? natural : ProductSort.fromParam(sort);
+        if (order == null) {
+            return CursorPage.byPosition(products, cursor, pageSize);
+        }
+        return CursorPage.of(order == natural ? products : order.sort(products), order, cursor, pageSize);
+    }
+    
+    // Pre-encoded JSON straight from the response cache, gzipped when the client accepts it
+    private ResponseEntity<byte[]> cachedResponse(CachedResponse cached, WebRequest request) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(catalogCacheControl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (cached.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, cached.getNextCursor());
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (cached.getGzippedJson() != null && CatalogResponseCache.acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.getGzippedJson());
+        }
+        return response.body(cached.getJson());
+    }
+    
+    // True when the client's copy is current; the 304 then carries the caching headers of the 200 it revalidates
+    private boolean notModified(WebRequest request, String eTag) {
+        if (!request.checkNotModified(eTag)) {
+            return false;
+        }
+        HttpServletResponse response = ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, catalogCacheControl().getHeaderValue());
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return true;
+    }
+    
+    // Clients and CDNs may store catalog responses but revalidate them by ETag once max-age has passed
+    private CacheControl catalogCacheControl() {
+        return catalogMaxAge.isZero()
+                ? CacheControl.noCache().cachePublic()
+                : CacheControl.maxAge(catalogMaxAge).cachePublic().mustRevalidate();
+    }
+    
+    // Unknown sort keys, malformed cursors, out-of-range limits and other malformed parameters
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(BadRequestException e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Invalid request");
+        errorResponse.put("message", e.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
     }
 }
@@ -0,0 +1,10 @@
+package com.hugscape.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import. {@code errors} lists the first rejected rows only.
+ */
+public record ImportReport(long rowsRead, long imported, long rejected, List<String> errors,
+                           long elapsedMillis, long rowsPerSecond) {
+}
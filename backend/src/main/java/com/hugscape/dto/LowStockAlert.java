@@ -0,0 +1,17 @@
+package com.hugscape.dto;
+
+import com.hugscape.entity.Product;
+
+/**
+ * A product crossing its category's low-stock threshold, in either direction.
+ */
+public record LowStockAlert(Type type, Long productId, String name, String category, Integer stockQuantity,
+                            int threshold, long catalogVersion) {
+
+    public enum Type { ENTERED, LEFT }
+
+    public static LowStockAlert of(Type type, Product product, int threshold, long catalogVersion) {
+        return new LowStockAlert(type, product.getId(), product.getName(), product.getCategory(),
+                product.getStockQuantity(), threshold, catalogVersion);
+    }
+}
@@ -0,0 +1,17 @@
+package com.hugscape.dto;
+
+import com.hugscape.entity.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * What a product grid tile needs: no description, care instructions or image gallery.
+ */
+public record ProductSummary(Long id, String name, BigDecimal price, String image, boolean inStock) {
+
+    public static ProductSummary from(Product product) {
+        String image = product.getImages() == null || product.getImages().isEmpty() ? null : product.getImages().get(0);
+        boolean inStock = product.getStockQuantity() != null && product.getStockQuantity() > 0;
+        return new ProductSummary(product.getId(), product.getName(), product.getPrice(), image, inStock);
+    }
+}
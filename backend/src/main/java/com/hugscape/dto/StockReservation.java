@@ -0,0 +1,9 @@
+package com.hugscape.dto;
+
+import java.time.Instant;
+
+/**
+ * Units of a product held for a checkout until it is committed, cancelled or expires.
+ */
+public record StockReservation(String id, Long productId, int quantity, Instant expiresAt) {
+}
@@ -0,0 +1,35 @@
+package com.hugscape.dto;
+
+import com.hugscape.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable copy of a user, with the profile response body built once up front.
+ */
+public record UserView(Long id, String email, String name, String givenName, String familyName,
+                       String picture, String locale, Boolean emailVerified,
+                       LocalDateTime createdAt, LocalDateTime lastLogin, Boolean isActive,
+                       Map<String, Object> response) {
+
+    public static UserView from(User user) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", user.getId());
+        response.put("email", user.getEmail());
+        response.put("name", user.getName());
+        response.put("givenName", user.getGivenName());
+        response.put("familyName", user.getFamilyName());
+        response.put("picture", user.getPicture());
+        response.put("locale", user.getLocale());
+        response.put("emailVerified", user.getEmailVerified());
+        response.put("createdAt", user.getCreatedAt());
+        response.put("lastLogin", user.getLastLogin());
+        return new UserView(user.getId(), user.getEmail(), user.getName(), user.getGivenName(),
+                user.getFamilyName(), user.getPicture(), user.getLocale(), user.getEmailVerified(),
+                user.getCreatedAt(), user.getLastLogin(), user.getIsActive(),
+                Collections.unmodifiableMap(response));
+    }
+}
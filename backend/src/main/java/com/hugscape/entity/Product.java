@@ -1,16 +1,25 @@
 package com.hugscape.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
 import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_active_id", columnList = "is_active, id"),
+    @Index(name = "idx_products_active_category", columnList = "is_active, category"),
+    @Index(name = "idx_products_active_brand", columnList = "is_active, brand"),
+    @Index(name = "idx_products_active_price", columnList = "is_active, price")
+})
 public class Product {
     
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Product name is required")
@@ -29,16 +38,20 @@ public class Product {
     private String category;
     
     @ElementCollection
-    @CollectionTable(name = "product_sizes", joinColumns = @JoinColumn(name = "product_id"))
+    @BatchSize(size = 500)
+    @CollectionTable(name = "product_sizes", joinColumns = @JoinColumn(name = "product_id"),
+            indexes = @Index(name = "idx_product_sizes_size", columnList = "size, product_id"))
     @Column(name = "size")
     private List<String> sizes;
     
     @ElementCollection
+    @BatchSize(size = 500)
     @CollectionTable(name = "product_colors", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "color")
     private List<String> colors;
     
     @ElementCollection
+    @BatchSize(size = 500)
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "image_url")
     private List<String> images;
@@ -52,6 +65,11 @@ public class Product {
     private String careInstructions;
     private Boolean isActive = true;
     
+    // Price in whole cents, set on the catalog's read copies so price ordering needs no BigDecimal arithmetic
+    @Transient
+    @JsonIgnore
+    private Long priceCents;
+    
     // Constructors
     public Product() {}
     
@@ -73,7 +91,11 @@ public class Product {
     public void setDescription(String description) { this.description = description; }
     
     public BigDecimal getPrice() { return price; }
-    public void setPrice(BigDecimal price) { this.price = price; }
+    public void setPrice(BigDecimal price) { this.price = price; this.priceCents = null; }
+    
+    @JsonIgnore
+    public Long getPriceCents() { return priceCents; }
+    public void setPriceCents(Long priceCents) { this.priceCents = priceCents; }
     
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
@@ -3,10 +3,13 @@ package com.hugscape.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+// Only write changed columns, so saving a stale copy cannot undo a written-behind last_login
+@DynamicUpdate
 public class User {
     
     @Id
@@ -0,0 +1,45 @@
+package com.hugscape.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hit and miss counts of one in-process cache.
+ *
+ * Recording is a single uncontended add; the registry reads the counts only when it is scraped,
+ * as {@code cache.gets} with a {@code result} of hit or miss, plus the current {@code cache.size}.
+ */
+public class CacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public <T> void bindTo(MeterRegistry registry, String cacheName, T cache, ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", cacheName)
+                .tag("result", "hit")
+                .description("Lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", cacheName)
+                .tag("result", "miss")
+                .description("Lookups that had to load the value")
+                .register(registry);
+        Gauge.builder("cache.size", cache, size)
+                .tag("cache", cacheName)
+                .description("Entries currently cached")
+                .register(registry);
+    }
+}
@@ -0,0 +1,173 @@
+package com.hugscape.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps the pooled DataSource to record how long each controller method holds a connection.
+ *
+ * Every borrow is tagged with the handler from {@link HandlerTrackingInterceptor}. Closing the
+ * connection records the hold time in the {@code db.connection.hold} timer and, for connections
+ * borrowed while serving a request, logs a warning above the slow-hold threshold; startup and
+ * background work such as seeding hold connections for long by design. {@link #reportLeaks()}
+ * names handlers still holding a
+ * connection past the leak threshold. Statements created on a tracked connection are timed by
+ * the {@link SlowQueryLog}.
+ */
+public class ConnectionTrackingDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionTrackingDataSource.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final long slowHoldNanos;
+    private final long leakNanos;
+    private final SlowQueryLog slowQueryLog;
+
+    // Connections currently borrowed, so leaks can be reported while they are still open
+    private final Map<Lease, Boolean> leases = new ConcurrentHashMap<>();
+
+    // Hold timer per handler, registered on the handler's first release so later releases only record
+    private final Map<String, Timer> holdTimers = new ConcurrentHashMap<>();
+
+    public ConnectionTrackingDataSource(DataSource target, ObjectProvider<MeterRegistry> meterRegistry,
+                                        Duration slowHoldThreshold, Duration leakThreshold, SlowQueryLog slowQueryLog) {
+        super(target);
+        this.slowQueryLog = slowQueryLog;
+        this.meterRegistry = meterRegistry;
+        this.slowHoldNanos = slowHoldThreshold.toNanos();
+        this.leakNanos = leakThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    // Log every connection held longer than the leak threshold; each lease is reported once
+    public void reportLeaks() {
+        long now = System.nanoTime();
+        for (Lease lease : leases.keySet()) {
+            long held = now - lease.borrowedAt;
+            if (held > leakNanos && !lease.reported) {
+                lease.reported = true;
+                log.warn("Possible connection leak: {} has held a connection for {} ms (thread {})",
+                        lease.handler, TimeUnit.NANOSECONDS.toMillis(held), lease.thread);
+            }
+        }
+    }
+
+    private Connection track(Connection connection) {
+        Lease lease = new Lease(connection, HandlerTrackingInterceptor.currentHandler(), Thread.currentThread().getName());
+        leases.put(lease, Boolean.TRUE);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, lease);
+    }
+
+    private void release(Lease lease) {
+        if (leases.remove(lease) == null) {
+            return;
+        }
+        long held = System.nanoTime() - lease.borrowedAt;
+        Timer timer = holdTimer(lease.handler);
+        if (timer != null) {
+            timer.record(held, TimeUnit.NANOSECONDS);
+        }
+        if (held > slowHoldNanos && !HandlerTrackingInterceptor.NO_HANDLER.equals(lease.handler)) {
+            log.warn("{} held a connection for {} ms", lease.handler, TimeUnit.NANOSECONDS.toMillis(held));
+        }
+    }
+
+    // Null until a registry is available, e.g. for connections borrowed while the context starts
+    private Timer holdTimer(String handler) {
+        Timer timer = holdTimers.get(handler);
+        if (timer != null) {
+            return timer;
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return null;
+        }
+        return holdTimers.computeIfAbsent(handler, key -> Timer.builder("db.connection.hold")
+                .description("Time a connection was held before being returned to the pool")
+                .tag("handler", key)
+                .register(registry));
+    }
+
+    private final class Lease implements InvocationHandler {
+
+        private final Connection target;
+        private final String handler;
+        private final String thread;
+        private final long borrowedAt = System.nanoTime();
+        private volatile boolean reported;
+
+        Lease(Connection target, String handler, String thread) {
+            this.target = target;
+            this.handler = handler;
+            this.thread = thread;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release(this);
+                    break;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Tracked[" + handler + "] " + target;
+                case "createStatement":
+                    return slowQueryLog.wrap((Statement) call(method, args), null);
+                case "prepareStatement":
+                case "prepareCall":
+                    return slowQueryLog.wrap((Statement) call(method, args), (String) args[0]);
+                default:
+                    break;
+            }
+            return call(method, args);
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
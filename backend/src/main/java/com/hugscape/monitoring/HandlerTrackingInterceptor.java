@@ -0,0 +1,54 @@
+package com.hugscape.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts the controller method serving the current request into the MDC under {@link #HANDLER_KEY},
+ * so connection tracking and log lines can name it.
+ */
+public class HandlerTrackingInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String HANDLER_KEY = "handler";
+
+    public static final String NO_HANDLER = "none";
+
+    // Handler name per controller method, built once so requests do not allocate the tag value
+    private final Map<Method, String> names = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            String name = names.get(method.getMethod());
+            if (name == null) {
+                name = names.computeIfAbsent(method.getMethod(), key -> method.getBeanType().getSimpleName() + "#" + key.getName());
+            }
+            MDC.put(HANDLER_KEY, name);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        MDC.remove(HANDLER_KEY);
+    }
+
+    // Async handlers (e.g. streamed exports) release the servlet thread without afterCompletion
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        MDC.remove(HANDLER_KEY);
+    }
+
+    // Handler of the request on this thread, or "none" outside of a handler (filters, scheduled tasks)
+    public static String currentHandler() {
+        String handler = MDC.get(HANDLER_KEY);
+        return handler != null ? handler : NO_HANDLER;
+    }
+}
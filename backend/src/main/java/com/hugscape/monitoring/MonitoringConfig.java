@@ -0,0 +1,66 @@
+package com.hugscape.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Request attribution for pooled connections: which controller method held a connection, for how long,
+// and which of its statements were slow. Connection tracking proxies every connection and statement, so
+// it is a development aid, on only with monitoring.connection.tracking.enabled=true
+@Configuration
+public class MonitoringConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerTrackingInterceptor());
+    }
+
+    // Wrap the auto-configured pool; static so it does not force early initialization of this class
+    @Bean
+    @ConditionalOnProperty(name = "monitoring.connection.tracking.enabled", havingValue = "true")
+    public static BeanPostProcessor connectionTrackingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                    Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionTrackingDataSource)) {
+                    Binder binder = Binder.get(environment);
+                    Duration slowHold = binder.bind("monitoring.connection.slow-hold-threshold", Duration.class)
+                            .orElse(Duration.ofMillis(500));
+                    Duration leak = binder.bind("monitoring.connection.leak-threshold", Duration.class)
+                            .orElse(Duration.ofSeconds(10));
+                    Duration slowQuery = binder.bind("monitoring.slow-query.threshold", Duration.class)
+                            .orElse(Duration.ofMillis(200));
+                    int slowQueriesPerMinute = binder.bind("monitoring.slow-query.max-per-minute", Integer.class)
+                            .orElse(60);
+                    return new ConnectionTrackingDataSource(dataSource, meterRegistry, slowHold, leak,
+                            new SlowQueryLog(slowQuery, slowQueriesPerMinute));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // A no-op unless connection tracking is on
+    @Scheduled(fixedDelayString = "${monitoring.connection.leak-check-interval-ms:5000}")
+    public void reportConnectionLeaks() {
+        if (dataSource instanceof ConnectionTrackingDataSource tracking) {
+            tracking.reportLeaks();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.hugscape.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs SQL statements that run longer than a threshold, with their bind values and the service
+ * method that issued them.
+ *
+ * Fast statements cost two clock reads and the remembered bind values; nothing is formatted
+ * unless the threshold is exceeded. At most {@code maxPerMinute} statements are logged per
+ * minute; the next logged line reports how many were skipped in between.
+ */
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final String SERVICE_PACKAGE = "com.hugscape.service.";
+
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final long thresholdNanos;
+    private final int maxPerMinute;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger loggedInWindow = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    public SlowQueryLog(Duration threshold, int maxPerMinute) {
+        this.thresholdNanos = threshold.toNanos();
+        this.maxPerMinute = maxPerMinute;
+    }
+
+    // Time the statement's executions; sql is null for plain statements, which pass it to execute
+    public Statement wrap(Statement statement, String sql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[] {type}, new TimedStatement(statement, sql));
+    }
+
+    private void completed(TimedStatement statement, Object[] executeArgs, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (elapsed <= thresholdNanos || !acquire()) {
+            return;
+        }
+        String sql = statement.sql != null ? statement.sql
+                : executeArgs != null && executeArgs.length > 0 ? String.valueOf(executeArgs[0]) : "?";
+        int skippedBefore = skipped.getAndSet(0);
+        log.warn("Slow query ({} ms) from {}: {} binds={}{}",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), caller(), sql, format(statement.binds, statement.bindCount),
+                skippedBefore > 0 ? " (" + skippedBefore + " slow queries not logged)" : "");
+    }
+
+    // Fixed one-minute window; over the limit only the skipped count is kept
+    private boolean acquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start > TimeUnit.MINUTES.toNanos(1) && windowStart.compareAndSet(start, now)) {
+            loggedInWindow.set(0);
+        }
+        if (loggedInWindow.incrementAndGet() > maxPerMinute) {
+            skipped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    // Innermost service method on the stack, e.g. ProductService#updateProduct
+    private static String caller() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(SERVICE_PACKAGE))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "#" + frame.getMethodName())
+                .orElse(HandlerTrackingInterceptor.currentHandler()));
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        // Spring proxies and lambdas: ProductService$$SpringCGLIB$$0 -> ProductService
+        int nested = name.indexOf('$');
+        return nested > 0 ? name.substring(0, nested) : name;
+    }
+
+    private static String format(Object[] binds, int count) {
+        if (binds == null) {
+            return "[]";
+        }
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            String value = String.valueOf(binds[i]);
+            values[i] = value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) + "..." : value;
+        }
+        return Arrays.toString(values);
+    }
+
+    private final class TimedStatement implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private Object[] binds;
+        private int bindCount;
+
+        TimedStatement(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, args[1]);
+            } else if (name.equals("clearParameters")) {
+                bindCount = 0;
+            } else if (name.equals("unwrap") && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            } else if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return call(method, args);
+                } finally {
+                    completed(this, args, start);
+                }
+            }
+            return call(method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (binds == null) {
+                binds = new Object[Math.max(index, 8)];
+            } else if (binds.length < index) {
+                binds = Arrays.copyOf(binds, Math.max(index, binds.length * 2));
+            }
+            binds[index - 1] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
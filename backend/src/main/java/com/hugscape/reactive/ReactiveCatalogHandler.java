@@ -0,0 +1,183 @@
+package com.hugscape.reactive;
+
+import com.hugscape.catalog.BadRequestException;
+import com.hugscape.catalog.ProductSort;
+import com.hugscape.catalog.ProductView;
+import com.hugscape.entity.Product;
+import com.hugscape.service.ProductService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Functional routes for the catalog reads: list, by id, category, brand, search and price range.
+ *
+ * Every read is answered from the in-memory catalog snapshot, so handlers never block on I/O.
+ * Full listings come pre-sorted from the snapshot; search, whose ranking can take long on broad
+ * queries, and any sorted listing, which may sort or build an index on first use, run off the
+ * event loop. Only numeric product ids
+ * are routed, so unknown paths under {@code /api/products} are 404s. Listings are
+ * emitted as a {@link Flux} and written only as fast as the client reads: a JSON array by
+ * default, or one product per line when the client accepts NDJSON. Listings honour the same
+ * {@code sort}, {@code view} and {@code limit} parameters as the MVC endpoints, without cursors.
+ */
+public class ReactiveCatalogHandler {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final ProductService productService;
+
+    public ReactiveCatalogHandler(ProductService productService) {
+        this.productService = productService;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return route(GET("/api/products"), deferred(this::getAllProducts))
+                .andRoute(GET("/api/products/search"), deferred(this::searchProducts))
+                .andRoute(GET("/api/products/price-range"), deferred(this::getProductsByPriceRange))
+                .andRoute(GET("/api/products/category/{category}"), deferred(this::getProductsByCategory))
+                .andRoute(GET("/api/products/brand/{brand}"), deferred(this::getProductsByBrand))
+                .andRoute(GET("/api/products/{id:\\d+}"), deferred(this::getProductById))
+                .filter((request, next) -> next.handle(request)
+                        .onErrorResume(BadRequestException.class, e -> ServerResponse.badRequest()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(Map.of("error", e.getMessage()))));
+    }
+
+    // Turn exceptions thrown while validating parameters into errors the filter above sees
+    private static HandlerFunction<ServerResponse> deferred(HandlerFunction<ServerResponse> handler) {
+        return request -> Mono.defer(() -> handler.handle(request));
+    }
+
+    // Get all active products; a sorted listing may sort or build the price index on first use, or wait
+    // for another request doing so, so it runs on a worker thread
+    private Mono<ServerResponse> getAllProducts(ServerRequest request) {
+        Optional<ProductSort> sort = sort(request);
+        return listing(request, sort
+                .map(order -> Mono.fromSupplier(() -> productService.getAllActiveProducts(order))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .orElseGet(() -> Mono.fromSupplier(productService::getAllActiveProducts)));
+    }
+
+    // Get product by ID
+    private Mono<ServerResponse> getProductById(ServerRequest request) {
+        Long id = parseId(request.pathVariable("id"));
+        return Mono.justOrEmpty(productService.getProductETag(id))
+                .flatMap(eTag -> request.checkNotModified(eTag)
+                        .switchIfEmpty(Mono.defer(() -> Mono.justOrEmpty(productService.getProductById(id))
+                                .flatMap(product -> ServerResponse.ok()
+                                        .eTag(eTag)
+                                        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .bodyValue(product)))))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    // Get products by category
+    private Mono<ServerResponse> getProductsByCategory(ServerRequest request) {
+        Optional<ProductSort> sort = sort(request);
+        return listing(request, sorted(sort, () -> productService.getProductsByCategory(request.pathVariable("category"))));
+    }
+
+    // Get products by brand
+    private Mono<ServerResponse> getProductsByBrand(ServerRequest request) {
+        Optional<ProductSort> sort = sort(request);
+        return listing(request, sorted(sort, () -> productService.getProductsByBrand(request.pathVariable("brand"))));
+    }
+
+    // Search products
+    private Mono<ServerResponse> searchProducts(ServerRequest request) {
+        String query = request.queryParam("q")
+                .orElseThrow(() -> new BadRequestException("Missing parameter: q"));
+        Optional<ProductSort> sort = sort(request);
+        return listing(request, Mono.fromSupplier(() -> productService.searchProducts(query))
+                .map(products -> sort.map(order -> order.sort(products)).orElse(products))
+                .subscribeOn(Schedulers.parallel()));
+    }
+
+    // Get products by price range
+    private Mono<ServerResponse> getProductsByPriceRange(ServerRequest request) {
+        Double minPrice = parsePrice(request, "minPrice");
+        Double maxPrice = parsePrice(request, "maxPrice");
+        Optional<ProductSort> sort = sort(request);
+        return listing(request, sorted(sort, () -> productService.getProductsByPriceRange(minPrice, maxPrice)));
+    }
+
+    // Conditional, streamed listing; the products are only looked up when the client's copy is stale
+    private Mono<ServerResponse> listing(ServerRequest request, Mono<List<Product>> products) {
+        ProductView view = ProductView.fromParam(request.queryParam("view").orElse(null));
+        int limit = request.queryParam("limit").map(ReactiveCatalogHandler::parseLimit).orElse(Integer.MAX_VALUE);
+        MediaType mediaType = request.headers().accept().stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)
+                ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        String eTag = productService.getCatalogETag();
+        return request.checkNotModified(eTag)
+                .switchIfEmpty(Mono.defer(() -> {
+                    Flux<Object> body = products.flatMapMany(Flux::fromIterable)
+                            .take(limit)
+                            .map(view::render);
+                    return ServerResponse.ok()
+                            .eTag(eTag)
+                            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                            .contentType(mediaType)
+                            .body(body, Object.class);
+                }));
+    }
+
+    // Parsed before the response is committed, so an unknown sort is still answered with a 400
+    private static Optional<ProductSort> sort(ServerRequest request) {
+        return request.queryParam("sort").map(ProductSort::fromParam);
+    }
+
+    // The listing as is, or re-sorted on a worker thread: sorting thousands of products would stall the event loop
+    private static Mono<List<Product>> sorted(Optional<ProductSort> sort, Supplier<List<Product>> products) {
+        Mono<List<Product>> listing = Mono.fromSupplier(products);
+        return sort
+                .map(order -> listing.map(order::sort).subscribeOn(Schedulers.boundedElastic()))
+                .orElse(listing);
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid id: " + value);
+        }
+    }
+
+    private static Double parsePrice(ServerRequest request, String name) {
+        String value = request.queryParam(name)
+                .orElseThrow(() -> new BadRequestException("Missing parameter: " + name));
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static int parseLimit(String value) {
+        try {
+            int limit = Integer.parseInt(value);
+            if (limit >= 1 && limit <= MAX_LIMIT) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+    }
+}
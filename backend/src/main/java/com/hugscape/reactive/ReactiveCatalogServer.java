@@ -0,0 +1,98 @@
+package com.hugscape.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.service.ProductService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Serves {@link ReactiveCatalogHandler}'s routes from a Reactor Netty server on its own port,
+ * next to the servlet container that keeps serving everything else, including all writes.
+ *
+ * Opt in with {@code catalog.reactive.enabled=true}. The server starts once the application is
+ * ready and the catalog is loaded, so no request ever waits on the database.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true")
+public class ReactiveCatalogServer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCatalogServer.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${catalog.reactive.port:8081}")
+    private int port;
+
+    // 0 means one event loop per core
+    @Value("${catalog.reactive.event-loop-threads:0}")
+    private int eventLoopThreads;
+
+    @Value("${catalog.reactive.idle-timeout:60s}")
+    private Duration idleTimeout;
+
+    private LoopResources loops;
+
+    private DisposableServer server;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Listeners of the ready event run in no set order; load here, off the event loop, so no request
+        // ever waits on the database. Reloads swap in a new snapshot and never unload the current one.
+        productCatalog.ensureLoaded();
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    // Same JSON settings as the MVC endpoints
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter(
+                RouterFunctions.toHttpHandler(new ReactiveCatalogHandler(productService).routes(), strategies));
+
+        int threads = eventLoopThreads > 0 ? eventLoopThreads : Runtime.getRuntime().availableProcessors();
+        loops = LoopResources.create("catalog-http", threads, true);
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loops)
+                .idleTimeout(idleTimeout)
+                .compress(true)
+                .handle(adapter)
+                .bindNow();
+        log.info("Reactive catalog API listening on port {} with {} event loop threads", server.port(), threads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+        if (loops != null) {
+            loops.disposeLater().block(Duration.ofSeconds(5));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hugscape.service;
+
+import com.hugscape.catalog.BadRequestException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Wire formats for bulk product import and export.
+ */
+public enum BulkFormat {
+
+    // A single JSON array
+    JSON(MediaType.APPLICATION_JSON),
+
+    // One JSON product per line
+    NDJSON(MediaType.APPLICATION_NDJSON),
+
+    // Header row plus one product per row; list columns are separated by '|'
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    BulkFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static BulkFormat fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return JSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown format: " + value);
+        }
+    }
+
+    // Format of an uploaded body, from its content type
+    public static BulkFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType type;
+            try {
+                type = MediaType.parseMediaType(contentType);
+            } catch (InvalidMediaTypeException e) {
+                throw new BadRequestException("Invalid content type: " + contentType);
+            }
+            for (BulkFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(type)) {
+                    return format;
+                }
+            }
+        }
+        throw new BadRequestException("Unsupported content type: " + contentType);
+    }
+
+    // Format of an import file, from its extension
+    public static BulkFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        if (lower.endsWith(".json")) {
+            return JSON;
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + fileName + " (expected .csv, .json, .ndjson or .jsonl)");
+    }
+}
@@ -1,14 +1,28 @@
 package com.hugscape.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hugscape.monitoring.CacheStats;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
@@ -19,8 +33,54 @@ public class JwtService {
     @Value("${jwt.expiration:86400000}") // 24 hours default
     private long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.verification-cache.max-entries:10000}")
+    private int maxCachedTokens;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    // Verified claims by token hash, each dropped when its token expires
+    private Cache<String, Claims> verifiedTokens;
+    
+    private final CacheStats verificationCacheStats = new CacheStats();
+    
+    // One timer per outcome, registered up front so the hot path only records
+    private Timer verifiedFromCache;
+    private Timer verifiedBySignature;
+    private Timer rejected;
+    private Timer signed;
+    
+    // Build the key and parser once; both are immutable and thread-safe
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        
+        verifiedFromCache = verificationTimer("cached");
+        verifiedBySignature = verificationTimer("verified");
+        rejected = verificationTimer("rejected");
+        signed = Timer.builder("jwt.signing")
+                .description("Time to build and sign a token")
+                .register(meterRegistry);
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+        verificationCacheStats.bindTo(meterRegistry, "jwt.verification", verifiedTokens, Cache::estimatedSize);
+    }
+    
+    private Timer verificationTimer(String result) {
+        return Timer.builder("jwt.verification")
+                .description("Time to verify a bearer token")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
     
     public String generateToken(String email, Long userId) {
@@ -30,16 +90,49 @@ public class JwtService {
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
+        long start = System.nanoTime();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
         
-        return Jwts.builder()
+        String token = Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
+        signed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
+    }
+    
+    // Verified, unexpired claims of the token, or empty when the token is invalid or expired
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        String key = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims == null) {
+            verificationCacheStats.miss();
+            try {
+                claims = parser.parseSignedClaims(token).getPayload();
+            } catch (JwtException | IllegalArgumentException e) {
+                return record(rejected, start, Optional.empty());
+            }
+            if (claims.getExpiration() != null) {
+                // Tokens issued here always expire; never cache one that would not
+                verifiedTokens.put(key, claims);
+            }
+            return record(verifiedBySignature, start, Optional.of(claims));
+        }
+        verificationCacheStats.hit();
+        return record(verifiedFromCache, start, Optional.of(claims));
+    }
+    
+    private static Optional<Claims> record(Timer timer, long start, Optional<Claims> result) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
     }
     
     public String extractEmail(String token) {
@@ -47,8 +140,7 @@ public class JwtService {
     }
     
     public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("userId", Long.class);
+        return extractClaim(token, JwtService::userId);
     }
     
     public Date extractExpiration(String token) {
@@ -60,36 +152,54 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
     
+    // User id claim of already verified claims
+    public static Long userId(Claims claims) {
+        return claims.get("userId", Long.class);
+    }
+    
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verify(token).orElseThrow(() -> new JwtException("Invalid or expired token"));
     }
     
     public Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
+        return verify(token).isEmpty();
     }
     
     public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token).isPresent();
     }
     
     public String refreshToken(String token) {
-        if (validateToken(token)) {
-            String email = extractEmail(token);
-            Long userId = extractUserId(token);
-            return generateToken(email, userId);
+        Claims claims = verify(token).orElseThrow(() -> new RuntimeException("Invalid token"));
+        return generateToken(claims.getSubject(), userId(claims));
+    }
+    
+    // Keeps verified claims only until the token's own expiration, so expired tokens are never served from the cache
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+        
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(claims.getExpiration().getTime() - System.currentTimeMillis()));
+        }
+        
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+    
+    // Tokens are keyed by digest so the cache never holds usable bearer tokens
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        throw new RuntimeException("Invalid token");
     }
 }
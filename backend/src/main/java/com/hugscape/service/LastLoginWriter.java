@@ -0,0 +1,119 @@
+package com.hugscape.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for users' last login time.
+ *
+ * Logins only record the time in memory, keeping the latest time per user, and the buffer is
+ * written with one batched JDBC update on a schedule, as soon as it reaches the batch size,
+ * and on shutdown. A flush never moves last_login backwards.
+ */
+@Component
+public class LastLoginWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginWriter.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Value("${auth.last-login.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    // Serializes flushes; a ReentrantLock rather than synchronized so a virtual thread doing JDBC is not pinned
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Set while an early flush is queued, so a burst of logins submits one task rather than one each
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    // Record a login; the database is updated on the next flush
+    public void touch(Long userId, LocalDateTime loginTime) {
+        record(userId, loginTime);
+        if (pending.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RuntimeException e) {
+                flushScheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<Object[]> batch = new ArrayList<>(pending.size());
+            for (Long userId : pending.keySet()) {
+                LocalDateTime loginTime = pending.remove(userId);
+                if (loginTime != null) {
+                    Timestamp timestamp = Timestamp.valueOf(loginTime);
+                    batch.add(new Object[] {timestamp, userId, timestamp});
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            } catch (RuntimeException e) {
+                // Put the times back so the next scheduled flush retries them
+                for (Object[] row : batch) {
+                    record((Long) row[1], ((Timestamp) row[0]).toLocalDateTime());
+                }
+                throw e;
+            }
+            for (Object[] row : batch) {
+                principalCache.evict((Long) row[1]);
+            }
+            log.debug("Flushed last login for {} users", batch.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void record(Long userId, LocalDateTime loginTime) {
+        pending.merge(userId, loginTime, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+}
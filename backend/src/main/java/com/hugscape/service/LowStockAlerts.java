@@ -0,0 +1,197 @@
+package com.hugscape.service;
+
+import com.hugscape.catalog.LowStockTracker;
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.dto.LowStockAlert;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes low-stock alerts to dashboards over Server-Sent Events.
+ *
+ * A new subscriber first receives a {@code low-stock} event with every product currently low
+ * on stock, then an {@code entered} or {@code left} event per {@link LowStockAlert}. Each
+ * subscriber has its own bounded queue, drained in alert order by at most one sender thread at a
+ * time, so a slow client holds up neither a stock write nor any other subscriber. A subscriber
+ * whose queue is full has fallen behind and is dropped; its dashboard reconnects and starts over
+ * from a fresh list. An alert racing a subscription may repeat what that subscriber's initial list
+ * already shows; both events are idempotent for the dashboard.
+ *
+ * Streams and sender threads are both capped at {@code stock.low-stock.max-subscribers}. Past that,
+ * or while dropped subscribers still hold threads in stuck writes, new subscriptions are refused.
+ */
+@Service
+public class LowStockAlerts {
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Value("${stock.low-stock.stream-timeout:30m}")
+    private Duration streamTimeout;
+
+    @Value("${stock.low-stock.subscriber-queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${stock.low-stock.max-subscribers:100}")
+    private int maxSubscribers;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger senderThreads = new AtomicInteger();
+
+    // One thread per subscriber being written to at most, so a client stuck in a write holds only its own;
+    // each subscriber has at most one drain queued or running, so the queue is bounded by the subscribers
+    private ThreadPoolExecutor sender;
+
+    @PostConstruct
+    void init() {
+        sender = new ThreadPoolExecutor(maxSubscribers, maxSubscribers, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "low-stock-alerts-" + senderThreads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        sender.allowCoreThreadTimeOut(true);
+    }
+
+    // Open a stream for one dashboard, or none when every sender thread may be taken; clients reconnect
+    // on their own once it times out
+    public Optional<SseEmitter> subscribe() {
+        if (subscribers.size() >= maxSubscribers || sender.getActiveCount() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        productCatalog.ensureLoaded();
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, queueCapacity);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        offer(subscriber, SseEmitter.event().name("low-stock").data(lowStockTracker.getLowStockProducts()));
+        return Optional.of(emitter);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onAlert(LowStockAlert alert) {
+        String name = alert.type().name().toLowerCase(Locale.ROOT);
+        String id = Long.toString(alert.catalogVersion());
+        // A builder per subscriber: building an event is not repeatable
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, SseEmitter.event().name(name).id(id).data(alert));
+        }
+    }
+
+    // Comment line that keeps idle connections from being dropped by proxies
+    @Scheduled(fixedDelayString = "${stock.low-stock.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    // Queue an event without ever blocking the caller; a subscriber with a full queue is dropped
+    private void offer(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.events.offer(event)) {
+            subscribers.remove(subscriber);
+            subscriber.behind.set(true);
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // Sends queued events until none are left; completing the stream of a dropped subscriber happens
+    // here as well, since the emitter may be held by a write that has not returned yet
+    private void drain(Subscriber subscriber) {
+        SseEmitter.SseEventBuilder event;
+        while (!subscriber.behind.get() && (event = subscriber.events.poll()) != null) {
+            if (!send(subscriber.emitter, event)) {
+                subscribers.remove(subscriber);
+                subscriber.events.clear();
+                subscriber.draining.set(false);
+                return;
+            }
+        }
+        if (subscriber.behind.get()) {
+            subscriber.events.clear();
+            subscriber.emitter.complete();
+            subscriber.draining.set(false);
+            return;
+        }
+        subscriber.draining.set(false);
+        // An event offered after the last poll but before the flag was cleared found the drain still running
+        if (!subscriber.events.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client gone or stream already completed
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> events;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        // Set once the queue overflowed; the subscriber is then completed instead of sent to
+        private final AtomicBoolean behind = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.events = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.hugscape.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hugscape.dto.UserView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Recently authenticated users by id, so token-authenticated requests skip the user lookup.
+ *
+ * Entries expire after a fixed time-to-live and the least recently used ones are dropped
+ * beyond the size limit. {@link UserService} evicts a user whenever it changes that user.
+ * Hits, misses and evictions come from the cache's own statistics.
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    @Value("${auth.principal-cache.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${auth.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private Cache<Long, UserView> users;
+
+    // Bumped on every explicit eviction so a load that raced with one is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Cached view of the user, loading it on a miss; absent users are not cached.
+    // The load runs outside the cache, so a database call never holds one of its locks.
+    public Optional<UserView> get(Long userId, Function<Long, Optional<UserView>> loader) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        UserView cached = users.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long evictionsBefore = evictions.get();
+        Optional<UserView> loaded = loader.apply(userId);
+        // An eviction counted after this check waits for the compute and then removes what it stored
+        loaded.ifPresent(user -> users.asMap().compute(userId,
+                (id, current) -> evictions.get() == evictionsBefore ? user : current));
+        return loaded;
+    }
+
+    public void evict(Long userId) {
+        evictions.incrementAndGet();
+        users.invalidate(userId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, users, "principals");
+    }
+}
@@ -0,0 +1,268 @@
+package com.hugscape.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.hugscape.catalog.BadRequestException;
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.dto.ImportReport;
+import com.hugscape.entity.Product;
+import com.hugscape.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streamed bulk import and export of products in JSON, NDJSON or CSV.
+ *
+ * Imports validate each row against the {@link Product} constraints, skip and report invalid
+ * rows, and insert the rest in JDBC batches of {@code catalog.import.batch-size}, one
+ * transaction per batch. Sequence ids and ordered inserts let Hibernate batch the size, color
+ * and image rows as well. Exports read the database one keyset page at a time.
+ */
+@Service
+public class ProductBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductBulkService.class);
+
+    private static final int EXPORT_PAGE_SIZE = 500;
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    private static final String LIST_SEPARATOR = "|";
+
+    // Column order of CSV exports; imports read the column names from the header row instead
+    private static final CsvSchema CSV_EXPORT_SCHEMA = CsvSchema.builder()
+            .addNumberColumn("id")
+            .addColumn("name")
+            .addColumn("description")
+            .addNumberColumn("price")
+            .addColumn("category")
+            .addArrayColumn("sizes", LIST_SEPARATOR)
+            .addArrayColumn("colors", LIST_SEPARATOR)
+            .addArrayColumn("images", LIST_SEPARATOR)
+            .addNumberColumn("stockQuantity")
+            .addColumn("brand")
+            .addColumn("material")
+            .addColumn("careInstructions")
+            .addBooleanColumn("isActive")
+            .build()
+            .withHeader();
+
+    private static final CsvSchema CSV_IMPORT_SCHEMA = CsvSchema.emptySchema()
+            .withHeader()
+            .withArrayElementSeparator(LIST_SEPARATOR);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${catalog.import.batch-size:1000}")
+    private int batchSize;
+
+    private final CsvMapper csvMapper = (CsvMapper) new CsvMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    // Insert every valid row of the input as a new product, then reload the catalog
+    public ImportReport importProducts(InputStream in, BulkFormat format) throws IOException {
+        long start = System.nanoTime();
+        long rowsRead = 0;
+        long imported = 0;
+        long nextProgress = PROGRESS_INTERVAL;
+        List<String> errors = new ArrayList<>();
+        List<Product> batch = new ArrayList<>(batchSize);
+
+        try (MappingIterator<Product> rows = reader(format).readValues(in)) {
+            while (true) {
+                Product product;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    rowsRead++;
+                    product = rows.nextValue();
+                } catch (JsonParseException e) {
+                    // Malformed input: the rest of the stream cannot be trusted
+                    throw new BadRequestException("Malformed input at row " + rowsRead + ": " + e.getOriginalMessage());
+                } catch (JsonMappingException e) {
+                    reject(errors, rowsRead, e.getOriginalMessage());
+                    continue;
+                }
+
+                prepare(product);
+                Set<ConstraintViolation<Product>> violations = validator.validate(product);
+                if (!violations.isEmpty()) {
+                    reject(errors, rowsRead, violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+
+                batch.add(product);
+                if (batch.size() == batchSize) {
+                    imported += insert(batch);
+                    if (rowsRead >= nextProgress) {
+                        log.info("Bulk import: {} rows read, {} imported ({} rows/s)", rowsRead, imported, rate(rowsRead, start));
+                        nextProgress = rowsRead + PROGRESS_INTERVAL;
+                    }
+                }
+            }
+        }
+        imported += insert(batch);
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        ImportReport report = new ImportReport(rowsRead, imported, rowsRead - imported, List.copyOf(errors),
+                elapsedMillis, rate(rowsRead, start));
+        log.info("Bulk import finished: {} rows read, {} imported, {} rejected in {} ms ({} rows/s)",
+                report.rowsRead(), report.imported(), report.rejected(), report.elapsedMillis(), report.rowsPerSecond());
+        if (imported > 0) {
+            productCatalog.reload();
+        }
+        return report;
+    }
+
+    // Write all active products in the given format, reading the database one keyset page at a time.
+    // Each page loads its sizes, colors and images with one batched query per collection.
+    @Transactional(readOnly = true)
+    public void exportActiveProducts(OutputStream out, BulkFormat format) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+        try (SequenceWriter writer = writer(format, out)) {
+            Long lastId = 0L;
+            List<Product> page;
+            do {
+                page = productRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(lastId, Limit.of(EXPORT_PAGE_SIZE));
+                for (Product product : page) {
+                    writer.write(product);
+                    lastId = product.getId();
+                }
+                count += page.size();
+                writer.flush();
+                entityManager.clear();
+            } while (page.size() == EXPORT_PAGE_SIZE);
+        }
+        if (format == BulkFormat.NDJSON && count > 0) {
+            out.write('\n');
+        }
+        log.info("Bulk export finished: {} products as {} in {} ms ({} rows/s)",
+                count, format, (System.nanoTime() - start) / 1_000_000, rate(count, start));
+    }
+
+    private ObjectReader reader(BulkFormat format) {
+        if (format == BulkFormat.CSV) {
+            return csvMapper.readerFor(Product.class).with(CSV_IMPORT_SCHEMA);
+        }
+        // Reads NDJSON as well as the elements of a single top-level array
+        return objectMapper.readerFor(Product.class);
+    }
+
+    private SequenceWriter writer(BulkFormat format, OutputStream out) throws IOException {
+        switch (format) {
+            case CSV:
+                return csvMapper.writer(CSV_EXPORT_SCHEMA)
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .writeValues(out);
+            case NDJSON:
+                return objectMapper.writer()
+                        .withRootValueSeparator("\n")
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .writeValues(out);
+            default:
+                return objectMapper.writer()
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .writeValuesAsArray(out);
+        }
+    }
+
+    // Imported rows always become new, active-by-default products
+    private static void prepare(Product product) {
+        product.setId(null);
+        if (product.getIsActive() == null) {
+            product.setIsActive(true);
+        }
+        product.setSizes(withoutBlanks(product.getSizes()));
+        product.setColors(withoutBlanks(product.getColors()));
+        product.setImages(withoutBlanks(product.getImages()));
+    }
+
+    private static List<String> withoutBlanks(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        return values.stream()
+                .filter(value -> value != null && !value.isBlank())
+                .map(String::trim)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private int insert(List<Product> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            for (Product product : batch) {
+                entityManager.persist(product);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        int inserted = batch.size();
+        batch.clear();
+        return inserted;
+    }
+
+    private static void reject(List<String> errors, long row, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Row " + row + ": " + message);
+        }
+    }
+
+    private static long rate(long rows, long startNanos) {
+        long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+        return rows * 1_000_000_000L / elapsedNanos;
+    }
+}
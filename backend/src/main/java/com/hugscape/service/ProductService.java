@@ -1,12 +1,21 @@
 package com.hugscape.service;
 
+import com.hugscape.catalog.CatalogDictionary;
+import com.hugscape.catalog.CatalogSnapshot;
+import com.hugscape.catalog.FacetIndex;
+import com.hugscape.catalog.LowStockTracker;
+import com.hugscape.catalog.PriceIndex;
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.catalog.ProductSearchIndex;
+import com.hugscape.catalog.ProductSort;
 import com.hugscape.entity.Product;
 import com.hugscape.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,19 +24,49 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private ProductCatalog productCatalog;
+    
+    @Autowired
+    private StockService stockService;
+    
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    
+    @Autowired
+    private CatalogDictionary catalogDictionary;
+    
+    @Autowired
+    private LowStockTracker lowStockTracker;
+    
+    // ETag for any catalog listing
+    public String getCatalogETag() {
+        return productCatalog.catalogETag();
+    }
+    
+    // ETag for a single product, empty if it does not exist
+    public Optional<String> getProductETag(Long id) {
+        return productCatalog.productETag(id);
+    }
+    
     // Get all active products
     public List<Product> getAllActiveProducts() {
-        return productRepository.findByIsActiveTrue();
+        return productCatalog.snapshot().getActiveProducts();
+    }
+    
+    // Get all active products in the given order
+    public List<Product> getAllActiveProducts(ProductSort sort) {
+        return productCatalog.snapshot().getActiveProducts(sort);
     }
     
     // Get product by ID
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return productCatalog.snapshot().getProduct(id);
     }
     
     // Get products by category
     public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategoryIgnoreCaseAndIsActiveTrue(category);
+        return productCatalog.snapshot().getActiveProductsByCategory(category);
     }
     
     // Search products
@@ -35,31 +74,46 @@ public class ProductService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllActiveProducts();
         }
-        return productRepository.searchProducts(searchTerm.trim());
+        CatalogSnapshot snapshot = productCatalog.snapshot();
+        return productSearchIndex.search(searchTerm).stream()
+                .map(snapshot::getProduct)
+                .flatMap(Optional::stream)
+                .filter(product -> Boolean.TRUE.equals(product.getIsActive()))
+                .toList();
     }
     
-    // Get products by price range
+    // Get products by price range, cheapest first
     public List<Product> getProductsByPriceRange(Double minPrice, Double maxPrice) {
-        return productRepository.findByPriceRange(minPrice, maxPrice);
+        return productCatalog.snapshot().getActiveProductsByPriceRange(
+                PriceIndex.ceilCents(minPrice), PriceIndex.floorCents(maxPrice));
     }
     
     // Get products by size
     public List<Product> getProductsBySize(String size) {
-        return productRepository.findBySize(size);
+        return productCatalog.snapshot().getActiveProductsBySize(size);
     }
     
     // Get products by brand
     public List<Product> getProductsByBrand(String brand) {
-        return productRepository.findByBrandIgnoreCaseAndIsActiveTrue(brand);
+        return productCatalog.snapshot().getActiveProductsByBrand(brand);
+    }
+    
+    // Combined category/brand/size/color/material/price band/stock filter with facet counts
+    public FacetIndex.Result queryProducts(Map<String, String> filters, int page, int pageSize) {
+        return productCatalog.snapshot().getFacetIndex().query(filters, page, pageSize);
     }
     
     // Create new product
+    @Transactional
     public Product createProduct(Product product) {
         product.setIsActive(true);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productCatalog.put(saved);
+        return saved;
     }
     
     // Update product
+    @Transactional
     public Optional<Product> updateProduct(Long id, Product productDetails) {
         return productRepository.findById(id).map(product -> {
             product.setName(productDetails.getName());
@@ -73,51 +127,56 @@ public class ProductService {
             product.setBrand(productDetails.getBrand());
             product.setMaterial(productDetails.getMaterial());
             product.setCareInstructions(productDetails.getCareInstructions());
-            return productRepository.save(product);
+            Product saved = productRepository.save(product);
+            productCatalog.put(saved);
+            return saved;
         });
     }
     
     // Delete product (soft delete)
+    @Transactional
     public boolean deleteProduct(Long id) {
         return productRepository.findById(id).map(product -> {
+            // The row's stock may lag behind the catalog until the next stock flush; keep the catalog's
+            productCatalog.snapshot().getProduct(id).ifPresent(current -> product.setStockQuantity(current.getStockQuantity()));
             product.setIsActive(false);
-            productRepository.save(product);
+            productCatalog.put(productRepository.save(product));
             return true;
         }).orElse(false);
     }
     
     // Update stock quantity
     public boolean updateStock(Long productId, Integer newQuantity) {
-        if (newQuantity < 0) {
-            return false;
-        }
-        
-        return productRepository.findById(productId).map(product -> {
-            product.setStockQuantity(newQuantity);
-            productRepository.save(product);
-            return true;
-        }).orElse(false);
+        return stockService.setStock(productId, newQuantity);
     }
     
-    // Get low stock products
+    // Get low stock products, as tracked from every stock change
     public List<Product> getLowStockProducts() {
-        return productRepository.findLowStockProducts();
+        productCatalog.ensureLoaded();
+        return lowStockTracker.getLowStockProducts();
     }
     
-    // Get all categories
+    // Get all categories of active products
     public List<String> getAllCategories() {
-        return productRepository.findAll().stream()
-                .map(Product::getCategory)
-                .distinct()
-                .toList();
+        productCatalog.ensureLoaded();
+        return catalogDictionary.getCategories();
+    }
+    
+    // Active product count per category
+    public Map<String, Integer> getCategoryCounts() {
+        productCatalog.ensureLoaded();
+        return catalogDictionary.getCategoryCounts();
     }
     
-    // Get all brands
+    // Get all brands of active products
     public List<String> getAllBrands() {
-        return productRepository.findAll().stream()
-                .map(Product::getBrand)
-                .filter(brand -> brand != null && !brand.trim().isEmpty())
-                .distinct()
-                .toList();
+        productCatalog.ensureLoaded();
+        return catalogDictionary.getBrands();
+    }
+    
+    // Active product count per brand
+    public Map<String, Integer> getBrandCounts() {
+        productCatalog.ensureLoaded();
+        return catalogDictionary.getBrandCounts();
     }
 }
@@ -0,0 +1,227 @@
+package com.hugscape.service;
+
+import com.hugscape.catalog.BadRequestException;
+import com.hugscape.catalog.CatalogListener;
+import com.hugscape.catalog.CatalogSnapshot;
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.dto.StockReservation;
+import com.hugscape.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stock reservations for checkout.
+ *
+ * Reserving and releasing only touch a per-product in-memory counter, updated lock-free, so
+ * concurrent checkouts of one product do not queue on its database row. Committing a
+ * reservation or setting stock patches the stock in the catalog, which refuses to drive it
+ * below zero and resyncs the counter to the new stock minus the units still held; the
+ * {@link StockWriter} then writes the new stock to the database in coalesced batches.
+ */
+@Service
+public class StockService implements CatalogListener {
+
+    public enum CommitResult { COMMITTED, NOT_FOUND, OUT_OF_STOCK }
+
+    @Autowired
+    private StockWriter stockWriter;
+
+    // Lazy: the catalog itself depends on all listeners, including this one
+    @Lazy
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Value("${stock.reservation.ttl:15m}")
+    private Duration reservationTtl;
+
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+
+    private final Map<String, StockReservation> reservations = new ConcurrentHashMap<>();
+
+    // Units that can still be reserved, or empty for unknown and inactive products
+    public OptionalInt getAvailable(Long productId) {
+        StockCounter counter = counter(productId);
+        return counter == null ? OptionalInt.empty() : OptionalInt.of(counter.available());
+    }
+
+    // Hold units for a checkout; empty when the product is unknown or not enough is available
+    public Optional<StockReservation> reserve(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new BadRequestException("Quantity must be positive");
+        }
+        StockCounter counter = counter(productId);
+        if (counter == null || !counter.tryReserve(quantity)) {
+            return Optional.empty();
+        }
+        StockReservation reservation = new StockReservation(UUID.randomUUID().toString(), productId, quantity,
+                Instant.now().plus(reservationTtl));
+        reservations.put(reservation.id(), reservation);
+        return Optional.of(reservation);
+    }
+
+    // Take the reserved units out of stock
+    public CommitResult commit(String reservationId) {
+        StockReservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            return CommitResult.NOT_FOUND;
+        }
+        if (isExpired(reservation, Instant.now())) {
+            release(reservation);
+            return CommitResult.NOT_FOUND;
+        }
+        StockCounter counter = counters.get(reservation.productId());
+        // Stop counting the units as held before the new stock is published, so the resync sees both at once
+        counter.settle(reservation.quantity());
+        if (!productCatalog.updateStock(reservation.productId(), stock -> stock - reservation.quantity())) {
+            // Stock was set below the units held since the reservation was made
+            resync(reservation.productId(), productCatalog.snapshot());
+            return CommitResult.OUT_OF_STOCK;
+        }
+        stockWriter.touch(reservation.productId());
+        return CommitResult.COMMITTED;
+    }
+
+    // Give reserved units back
+    public boolean cancel(String reservationId) {
+        StockReservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+        release(reservation);
+        return true;
+    }
+
+    // Set stock to an absolute quantity
+    public boolean setStock(Long productId, int quantity) {
+        if (quantity < 0 || !productCatalog.updateStock(productId, stock -> quantity)) {
+            return false;
+        }
+        stockWriter.touch(productId);
+        return true;
+    }
+
+    // Release reservations that were neither committed nor cancelled in time
+    @Scheduled(fixedDelayString = "${stock.reservation.sweep-interval-ms:30000}")
+    public void releaseExpired() {
+        Instant now = Instant.now();
+        for (StockReservation reservation : reservations.values()) {
+            if (isExpired(reservation, now) && reservations.remove(reservation.id(), reservation)) {
+                release(reservation);
+            }
+        }
+    }
+
+    @Override
+    public void catalogLoaded(CatalogSnapshot snapshot) {
+        for (Long productId : counters.keySet()) {
+            resync(productId, snapshot);
+        }
+    }
+
+    @Override
+    public void productChanged(Product previous, Product current, CatalogSnapshot snapshot) {
+        resync(current.getId(), snapshot);
+    }
+
+    @Override
+    public void stockChanged(Product product, int previousStock, CatalogSnapshot snapshot) {
+        resync(product.getId(), snapshot);
+    }
+
+    private StockCounter counter(Long productId) {
+        CatalogSnapshot snapshot = productCatalog.snapshot();
+        Optional<Product> product = snapshot.getProduct(productId);
+        if (product.isEmpty() || !Boolean.TRUE.equals(product.get().getIsActive())) {
+            return null;
+        }
+        // Listeners run after the snapshot is swapped, so a counter created here never misses a change
+        return counters.computeIfAbsent(productId, id -> new StockCounter(stockOf(productCatalog.snapshot(), id)));
+    }
+
+    private void resync(Long productId, CatalogSnapshot snapshot) {
+        counters.computeIfPresent(productId, (id, counter) -> {
+            counter.reset(stockOf(snapshot, id));
+            return counter;
+        });
+    }
+
+    private void release(StockReservation reservation) {
+        StockCounter counter = counters.get(reservation.productId());
+        if (counter != null) {
+            counter.release(reservation.quantity());
+        }
+    }
+
+    private static int stockOf(CatalogSnapshot snapshot, Long productId) {
+        return snapshot.getProduct(productId)
+                .map(Product::getStockQuantity)
+                .orElse(0);
+    }
+
+    private static boolean isExpired(StockReservation reservation, Instant now) {
+        return reservation.expiresAt().isBefore(now);
+    }
+
+    // Available and held units of one product packed into one long, so both change in a single CAS
+    private static final class StockCounter {
+
+        private final AtomicLong state;
+
+        StockCounter(int stock) {
+            state = new AtomicLong(pack(stock, 0));
+        }
+
+        int available() {
+            return available(state.get());
+        }
+
+        boolean tryReserve(int quantity) {
+            while (true) {
+                long current = state.get();
+                int available = available(current);
+                if (available < quantity) {
+                    return false;
+                }
+                if (state.compareAndSet(current, pack(available - quantity, held(current) + quantity))) {
+                    return true;
+                }
+            }
+        }
+
+        void release(int quantity) {
+            state.updateAndGet(current -> pack(available(current) + quantity, held(current) - quantity));
+        }
+
+        void settle(int quantity) {
+            state.updateAndGet(current -> pack(available(current), held(current) - quantity));
+        }
+
+        void reset(int stock) {
+            state.updateAndGet(current -> pack(stock - held(current), held(current)));
+        }
+
+        private static long pack(int available, int held) {
+            return ((long) available << 32) | (held & 0xFFFFFFFFL);
+        }
+
+        private static int available(long state) {
+            return (int) (state >> 32);
+        }
+
+        private static int held(long state) {
+            return (int) state;
+        }
+    }
+}
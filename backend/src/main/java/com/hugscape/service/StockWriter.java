@@ -0,0 +1,114 @@
+package com.hugscape.service;
+
+import com.hugscape.catalog.CatalogListener;
+import com.hugscape.catalog.CatalogSnapshot;
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.entity.Product;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for product stock.
+ *
+ * Stock changes are applied to the catalog first and only mark the product as changed here.
+ * A flush writes the catalog's current stock of every changed product in one batched JDBC
+ * update, so any number of checkouts of one product between flushes cost a single row write.
+ * Flushes run on a schedule, on shutdown, and under the catalog's write lock right before it is
+ * reloaded from the database, so no stock change can fall between the flush and the reload.
+ *
+ * This is deliberately single-node: the in-memory catalog is the authority on stock and the row
+ * is overwritten with its value, not decremented with a guarded {@code stock - ? WHERE stock >= ?}.
+ * Several instances sharing one database would overwrite each other's sales, and a crash loses
+ * up to one flush interval of committed changes. Scaling out needs a guarded decrement per
+ * commit instead of this buffer.
+ */
+@Component
+public class StockWriter implements CatalogListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StockWriter.class);
+
+    private static final String UPDATE_SQL = "UPDATE products SET stock_quantity = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Lazy: the catalog depends on this and on StockService, which depends on this too
+    @Lazy
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    // Serializes flushes; a ReentrantLock rather than synchronized so a virtual thread doing JDBC is not pinned
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Record that a product's stock changed in the catalog; the database is updated on the next flush
+    public void touch(Long productId) {
+        changed.add(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${stock.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<Object[]> batch = new ArrayList<>(changed.size());
+            for (Long productId : changed) {
+                // Removed before the stock is read from the current snapshot: a change published after this
+                // read marks the product again, and one published before it is in what is read
+                changed.remove(productId);
+                Optional<Integer> stock = productCatalog.snapshot().getProduct(productId).map(Product::getStockQuantity);
+                stock.ifPresent(quantity -> batch.add(new Object[] {quantity, productId}));
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            } catch (RuntimeException e) {
+                // Mark the products again so the next flush retries them
+                for (Object[] row : batch) {
+                    changed.add((Long) row[1]);
+                }
+                throw e;
+            }
+            log.debug("Flushed stock for {} products", batch.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // A reload reads stock from the database, so anything not written yet would be lost to it
+    @Override
+    public void beforeLoad() {
+        flush();
+    }
+
+    @Override
+    public void catalogLoaded(CatalogSnapshot snapshot) {
+    }
+
+    @Override
+    public void productChanged(Product previous, Product current, CatalogSnapshot snapshot) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -1,5 +1,6 @@
 package com.hugscape.service;
 
+import com.hugscape.dto.UserView;
 import com.hugscape.entity.User;
 import com.hugscape.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +18,12 @@ public class UserService {
     @Autowired
     private JwtService jwtService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private LastLoginWriter lastLoginWriter;
+    
     // Find or create user from Google OAuth
     public User findOrCreateUser(String googleId, String email, String name, 
                                 String givenName, String familyName, 
@@ -25,9 +32,11 @@ public class UserService {
         Optional<User> existingUser = userRepository.findByGoogleId(googleId);
         
         if (existingUser.isPresent()) {
+            // Nothing else changes on a repeat login, so the new login time is written behind
             User user = existingUser.get();
             user.updateLastLogin();
-            return userRepository.save(user);
+            lastLoginWriter.touch(user.getId(), user.getLastLogin());
+            return user;
         }
         
         // Check if email already exists (in case of account linking)
@@ -42,7 +51,9 @@ public class UserService {
             user.setLocale(locale);
             user.setEmailVerified(emailVerified);
             user.updateLastLogin();
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            principalCache.evict(saved.getId());
+            return saved;
         }
         
         // Create new user
@@ -79,7 +90,9 @@ public class UserService {
             user.setName(name);
             user.setGivenName(givenName);
             user.setFamilyName(familyName);
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            principalCache.evict(userId);
+            return saved;
         }
         throw new RuntimeException("User not found");
     }
@@ -91,6 +104,7 @@ public class UserService {
             User user = userOpt.get();
             user.setIsActive(false);
             userRepository.save(user);
+            principalCache.evict(userId);
             return true;
         }
         return false;
@@ -101,13 +115,22 @@ public class UserService {
         return jwtService.generateToken(user.getEmail(), user.getId());
     }
     
+    public String generateUserToken(UserView user) {
+        return jwtService.generateToken(user.email(), user.id());
+    }
+    
     // Validate JWT token and return user
     public Optional<User> getUserFromToken(String token) {
-        if (jwtService.validateToken(token)) {
-            Long userId = jwtService.extractUserId(token);
-            return findById(userId);
-        }
-        return Optional.empty();
+        return jwtService.verify(token)
+                .map(JwtService::userId)
+                .flatMap(this::findById);
+    }
+    
+    // Validate JWT token and return the cached view of its user
+    public Optional<UserView> getUserViewFromToken(String token) {
+        return jwtService.verify(token)
+                .map(JwtService::userId)
+                .flatMap(userId -> principalCache.get(userId, id -> findById(id).map(UserView::from)));
     }
     
     // Check if user exists
@@ -0,0 +1,51 @@
+-- Schema for the prod profile; matches the JPA mappings in com.hugscape.entity
+
+CREATE SEQUENCE product_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE products (
+    id                BIGINT NOT NULL,
+    name              VARCHAR(255),
+    description       TEXT,
+    price             NUMERIC(38, 2),
+    category          VARCHAR(255),
+    stock_quantity    INTEGER,
+    brand             VARCHAR(255),
+    material          VARCHAR(255),
+    care_instructions VARCHAR(255),
+    is_active         BOOLEAN,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE product_sizes (
+    product_id BIGINT NOT NULL,
+    size       VARCHAR(255),
+    CONSTRAINT fk_product_sizes_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE product_colors (
+    product_id BIGINT NOT NULL,
+    color      VARCHAR(255),
+    CONSTRAINT fk_product_colors_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE product_images (
+    product_id BIGINT NOT NULL,
+    image_url  VARCHAR(255),
+    CONSTRAINT fk_product_images_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE users (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    google_id      VARCHAR(255) UNIQUE,
+    email          VARCHAR(255) UNIQUE,
+    name           VARCHAR(255),
+    given_name     VARCHAR(255),
+    family_name    VARCHAR(255),
+    picture        VARCHAR(255),
+    locale         VARCHAR(255),
+    email_verified BOOLEAN,
+    created_at     TIMESTAMP(6),
+    last_login     TIMESTAMP(6),
+    is_active      BOOLEAN,
+    PRIMARY KEY (id)
+);
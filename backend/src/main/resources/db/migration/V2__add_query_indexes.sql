@@ -0,0 +1,12 @@
+-- Indexes matching the ProductRepository queries; keep in sync with @Table/@CollectionTable indexes on Product
+
+-- Active-product filters and the keyset export (is_active = true AND id > ? ORDER BY id)
+CREATE INDEX idx_products_active_id ON products (is_active, id);
+CREATE INDEX idx_products_active_category ON products (is_active, category);
+CREATE INDEX idx_products_active_brand ON products (is_active, brand);
+CREATE INDEX idx_products_active_price ON products (is_active, price);
+CREATE INDEX idx_products_active_stock ON products (is_active, stock_quantity);
+
+-- Size lookups (:size MEMBER OF p.sizes). Batched collection loads (product_id IN (...)) use the
+-- index H2 creates for each product_id foreign key.
+CREATE INDEX idx_product_sizes_size ON product_sizes (size, product_id);
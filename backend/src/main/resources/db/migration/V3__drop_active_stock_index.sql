@@ -0,0 +1,3 @@
+-- No query filters or sorts active products by stock any more: low-stock listings and in-stock
+-- facets are served from the in-memory catalog, so the index only slowed every stock write
+DROP INDEX IF EXISTS idx_products_active_stock;
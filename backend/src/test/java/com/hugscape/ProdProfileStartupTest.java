@@ -0,0 +1,37 @@
+package com.hugscape;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The prod profile builds the schema from the Flyway migrations and only validates it against the
+ * entities, so a migration and an entity mapping that disagree fail this context at startup.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prod_profile_db;DB_CLOSE_DELAY=-1",
+        "management.server.port=-1"
+})
+@ActiveProfiles("prod")
+class ProdProfileStartupTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migratedSchemaValidatesAndHasNoStockIndex() {
+        Integer stockIndexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_PRODUCTS_ACTIVE_STOCK'",
+                Integer.class);
+        Integer priceIndexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_PRODUCTS_ACTIVE_PRICE'",
+                Integer.class);
+
+        assertThat(stockIndexes).isZero();
+        assertThat(priceIndexes).isOne();
+    }
+}
@@ -0,0 +1,50 @@
+package com.hugscape.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogResponseCacheTest {
+
+    @Test
+    void gzipIsOnlyServedWhenAccepted() {
+        assertThat(CatalogResponseCache.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(CatalogResponseCache.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(CatalogResponseCache.acceptsGzip("*")).isTrue();
+
+        assertThat(CatalogResponseCache.acceptsGzip(null)).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("identity")).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("gzip; q=0.000, *")).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("*;q=0")).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("x-gzip-ish")).isFalse();
+    }
+
+    @Test
+    void rendersOncePerKeyAndSkipsOversizedBodies() {
+        CatalogResponseCache cache = cache(64);
+        AtomicInteger renders = new AtomicInteger();
+
+        cache.get("small", () -> List.of(renders.incrementAndGet()));
+        cache.get("small", () -> List.of(renders.incrementAndGet()));
+        assertThat(renders).hasValue(1);
+
+        String large = "x".repeat(100);
+        cache.get("large", () -> large + renders.incrementAndGet());
+        cache.get("large", () -> large + renders.incrementAndGet());
+        assertThat(renders).hasValue(3);
+    }
+
+    private static CatalogResponseCache cache(long maxBytes) {
+        CatalogResponseCache cache = new CatalogResponseCache();
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "maxBytes", maxBytes);
+        cache.init();
+        return cache;
+    }
+}
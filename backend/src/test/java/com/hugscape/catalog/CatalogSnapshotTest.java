@@ -0,0 +1,136 @@
+package com.hugscape.catalog;
+
+import com.hugscape.config.SyntheticCatalogInitializer;
+import com.hugscape.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Snapshots derived with {@link CatalogSnapshot#withProduct} must answer every read exactly like a
+ * snapshot built from scratch over the same products.
+ */
+class CatalogSnapshotTest {
+
+    private static final List<String> CATEGORIES = List.of("nightwear", "boys", "girls", "baby");
+    private static final List<String> SIZES = List.of("2T", "3T", "S", "M");
+
+    @Test
+    void derivedSnapshotsMatchRebuiltOnes() {
+        List<Product> products = new SyntheticCatalogInitializer().generateProducts(200, 7);
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setId(i + 1L);
+        }
+        CatalogSnapshot snapshot = CatalogSnapshot.of(1, products);
+        // Built up front so they are carried over instead of rebuilt
+        snapshot.getActiveProducts(ProductSort.NAME);
+        snapshot.getFacetIndex();
+        snapshot.getPriceIndex();
+
+        Random random = new Random(11);
+        long nextId = products.size() + 1L;
+        for (long version = 2; version < 400; version++) {
+            if (random.nextInt(6) == 0) {
+                snapshot = snapshot.withStock(1L + random.nextInt(products.size()), random.nextInt(3), version);
+                assertSameReads(snapshot, CatalogSnapshot.of(version, new ArrayList<>(snapshot.getAllProducts())));
+                continue;
+            }
+            Product product = random.nextInt(10) == 0
+                    ? copy(products.get(0), nextId++)
+                    : copy(snapshot.getProduct(1L + random.nextInt(products.size())).orElseThrow(), null);
+            switch (random.nextInt(6)) {
+                case 0 -> product.setCategory(CATEGORIES.get(random.nextInt(CATEGORIES.size())));
+                case 1 -> product.setName("Renamed " + random.nextInt(1000));
+                case 2 -> product.setIsActive(!product.getIsActive());
+                case 3 -> product.setSizes(List.of(SIZES.get(random.nextInt(SIZES.size()))));
+                case 4 -> product.setPrice(BigDecimal.valueOf(999 + random.nextInt(6000), 2));
+                default -> product.setStockQuantity(random.nextInt(3));
+            }
+            snapshot = snapshot.withProduct(product, version);
+            assertSameReads(snapshot, CatalogSnapshot.of(version, new ArrayList<>(snapshot.getAllProducts())));
+        }
+    }
+
+    @Test
+    void productVersionsFollowWrites() {
+        Product first = product(1L, "boys");
+        Product second = product(2L, "girls");
+        CatalogSnapshot snapshot = CatalogSnapshot.of(1, List.of(first, second))
+                .withProduct(product(2L, "baby"), 2)
+                .withProduct(product(3L, "baby"), 3);
+
+        assertThat(snapshot.getProductVersion(1L)).hasValue(1);
+        assertThat(snapshot.getProductVersion(2L)).hasValue(2);
+        assertThat(snapshot.getProductVersion(3L)).hasValue(3);
+        assertThat(snapshot.getProductVersion(4L)).isEmpty();
+        assertThat(snapshot.getActiveProductsByCategory("Baby")).extracting(Product::getId).containsExactly(2L, 3L);
+        assertThat(snapshot.getActiveProductsByCategory("girls")).isEmpty();
+    }
+
+    @Test
+    void stockChangesLeaveEarlierSnapshotsAlone() {
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            products.add(product(id, "boys"));
+        }
+        CatalogSnapshot snapshot = CatalogSnapshot.of(1, products);
+        snapshot.getFacetIndex();
+
+        CatalogSnapshot soldOut = snapshot.withStock(2L, 0, 2).withStock(3L, 4, 3);
+
+        assertThat(soldOut.getVersion()).isEqualTo(3);
+        assertThat(soldOut.getProductVersion(2L)).hasValue(2);
+        assertThat(soldOut.getProductVersion(1L)).hasValue(1);
+        assertThat(soldOut.getProduct(2L).orElseThrow().getStockQuantity()).isZero();
+        assertThat(snapshot.getProduct(2L).orElseThrow().getStockQuantity()).isEqualTo(5);
+        assertThat(snapshot.getProductVersion(2L)).hasValue(1);
+        assertThat(snapshot.getFacetIndex().query(Map.of(FacetIndex.IN_STOCK, "true"), 0, 20).getTotal()).isEqualTo(3);
+        assertSameReads(soldOut, CatalogSnapshot.of(3, new ArrayList<>(soldOut.getAllProducts())));
+        assertThat(soldOut.getFacetIndex().query(Map.of(FacetIndex.IN_STOCK, "true"), 0, 20).getProducts())
+                .extracting(Product::getId).containsExactly(1L, 3L);
+    }
+
+    private static void assertSameReads(CatalogSnapshot derived, CatalogSnapshot rebuilt) {
+        assertThat(derived.getActiveProducts()).containsExactlyElementsOf(rebuilt.getActiveProducts());
+        assertThat(derived.getActiveProducts(ProductSort.NAME)).containsExactlyElementsOf(rebuilt.getActiveProducts(ProductSort.NAME));
+        assertThat(derived.getActiveProducts(ProductSort.PRICE)).containsExactlyElementsOf(rebuilt.getActiveProducts(ProductSort.PRICE));
+        for (String category : CATEGORIES) {
+            assertThat(derived.getActiveProductsByCategory(category)).containsExactlyElementsOf(rebuilt.getActiveProductsByCategory(category));
+        }
+        for (String size : SIZES) {
+            assertThat(derived.getActiveProductsBySize(size)).containsExactlyElementsOf(rebuilt.getActiveProductsBySize(size));
+        }
+        assertThat(derived.getActiveProductsByBrand("hugscape")).containsExactlyElementsOf(rebuilt.getActiveProductsByBrand("hugscape"));
+        assertThat(derived.getActiveProductsByPriceRange(2000, 3999)).containsExactlyElementsOf(rebuilt.getActiveProductsByPriceRange(2000, 3999));
+
+        for (Map<String, String> filters : List.of(Map.<String, String>of(), Map.of(FacetIndex.CATEGORY, "boys"),
+                Map.of(FacetIndex.SIZE, "m", FacetIndex.IN_STOCK, "true"))) {
+            FacetIndex.Result expected = rebuilt.getFacetIndex().query(filters, 0, 20);
+            FacetIndex.Result actual = derived.getFacetIndex().query(filters, 0, 20);
+            assertThat(actual.getTotal()).isEqualTo(expected.getTotal());
+            assertThat(actual.getProducts()).containsExactlyElementsOf(expected.getProducts());
+            assertThat(actual.getFacets()).isEqualTo(expected.getFacets());
+        }
+    }
+
+    private static Product product(Long id, String category) {
+        Product product = new Product("Product " + id, "Description", new BigDecimal("19.99"), category);
+        product.setId(id);
+        product.setStockQuantity(5);
+        return product;
+    }
+
+    private static Product copy(Product source, Long id) {
+        Product copy = ProductCatalog.detach(source);
+        if (id != null) {
+            copy.setId(id);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,51 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetIndexTest {
+
+    private final FacetIndex index = new FacetIndex(products(30));
+
+    @Test
+    void pagesThroughMatches() {
+        FacetIndex.Result second = index.query(Map.of(), 1, 20);
+
+        assertThat(second.getTotal()).isEqualTo(30);
+        assertThat(second.getProducts()).extracting(Product::getId).containsExactlyElementsOf(ids(21, 30));
+    }
+
+    @Test
+    void pagesPastTheEndAreEmpty() {
+        assertThat(index.query(Map.of(), 2, 20).getProducts()).isEmpty();
+        // page * pageSize overflows an int here and used to wrap around to the first page
+        assertThat(index.query(Map.of(), 99_999_999, 200).getProducts()).isEmpty();
+        assertThat(index.query(Map.of(), Integer.MAX_VALUE, 200).getTotal()).isEqualTo(30);
+    }
+
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Product product = new Product("Product " + id, "", new BigDecimal("9.99"), "baby");
+            product.setId(id);
+            product.setStockQuantity(1);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static List<Long> ids(long from, long to) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = from; id <= to; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,66 @@
+package com.hugscape.catalog;
+
+import com.hugscape.dto.LowStockAlert;
+import com.hugscape.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LowStockTrackerTest {
+
+    private final LowStockTracker tracker = new LowStockTracker();
+
+    private final List<Object> events = new ArrayList<>();
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void load() {
+        ReflectionTestUtils.setField(tracker, "thresholds", new LowStockThresholds());
+        ReflectionTestUtils.setField(tracker, "eventPublisher", (ApplicationEventPublisher) events::add);
+        snapshot = CatalogSnapshot.of(1, List.of(product(1L, 3), product(2L, 50)));
+        tracker.catalogLoaded(snapshot);
+        events.clear();
+    }
+
+    @Test
+    void stockChangesWithinTheSetAreCopiedOnceOnRead() {
+        stock(1L, 2, 2);
+        stock(1L, 1, 3);
+
+        List<Product> listed = tracker.getLowStockProducts();
+        assertThat(listed).extracting(Product::getStockQuantity).containsExactly(1);
+        assertThat(tracker.getLowStockProducts()).isSameAs(listed);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void crossingTheThresholdRepublishesAndAlerts() {
+        stock(2L, 5, 2);
+        stock(1L, 40, 3);
+
+        assertThat(tracker.getLowStockProducts()).extracting(Product::getId).containsExactly(2L);
+        assertThat(events).extracting(event -> ((LowStockAlert) event).type())
+                .containsExactly(LowStockAlert.Type.ENTERED, LowStockAlert.Type.LEFT);
+    }
+
+    private void stock(Long id, int stock, long version) {
+        int previous = snapshot.getProduct(id).orElseThrow().getStockQuantity();
+        snapshot = snapshot.withStock(id, stock, version);
+        tracker.stockChanged(snapshot.getProduct(id).orElseThrow(), previous, snapshot);
+    }
+
+    private static Product product(Long id, int stock) {
+        Product product = new Product("Product " + id, "", new BigDecimal("9.99"), "baby");
+        product.setId(id);
+        product.setStockQuantity(stock);
+        return product;
+    }
+}
@@ -0,0 +1,47 @@
+package com.hugscape.catalog;
+
+import com.hugscape.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    @Test
+    void changesReplaceAProductsTerms() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        Product pajamas = product(1L, "Dinosaur Pajamas");
+        CatalogSnapshot snapshot = CatalogSnapshot.of(1, List.of(pajamas, product(2L, "Dino Hoodie")));
+        index.catalogLoaded(snapshot);
+        assertThat(index.search("dino")).containsExactly(2L, 1L);
+
+        Product renamed = product(1L, "Rocket Pajamas");
+        index.productChanged(pajamas, renamed, snapshot.withProduct(renamed, 2));
+        assertThat(index.search("dino")).containsExactly(2L);
+        assertThat(index.search("rock paj")).containsExactly(1L);
+
+        Product inactive = product(1L, "Rocket Pajamas");
+        inactive.setIsActive(false);
+        index.productChanged(renamed, inactive, snapshot.withProduct(inactive, 3));
+        assertThat(index.search("rocket")).isEmpty();
+    }
+
+    @Test
+    void shortTokensOnlyMatchWholeTerms() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.catalogLoaded(CatalogSnapshot.of(1, List.of(product(1L, "Onesie"), product(2L, "Size O Romper"))));
+
+        assertThat(index.search("o")).containsExactly(2L);
+        assertThat(index.search("on")).containsExactly(1L);
+    }
+
+    private static Product product(Long id, String name) {
+        Product product = new Product(name, "", new BigDecimal("9.99"), "baby");
+        product.setId(id);
+        product.setStockQuantity(1);
+        return product;
+    }
+}
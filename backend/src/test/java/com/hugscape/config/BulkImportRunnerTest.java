@@ -0,0 +1,69 @@
+package com.hugscape.config;
+
+import com.hugscape.dto.ImportReport;
+import com.hugscape.service.BulkFormat;
+import com.hugscape.service.ProductBulkService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkImportRunnerTest {
+
+    private final BulkImportRunner runner = new BulkImportRunner();
+
+    private final ProductBulkService productBulkService = mock(ProductBulkService.class);
+
+    @TempDir
+    private Path dir;
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(runner, "productBulkService", productBulkService);
+    }
+
+    @Test
+    void onlyTheImportOptionIsAnImport() {
+        assertThat(BulkImportRunner.isImport("--import=products.csv")).isTrue();
+        assertThat(BulkImportRunner.isImport("--spring.profiles.active=prod")).isFalse();
+    }
+
+    @Test
+    void cleanImportExitsWithZero() throws Exception {
+        Path file = file("clean.csv", 0);
+
+        runner.run(new DefaultApplicationArguments("--import=" + file));
+
+        assertThat(runner.getExitCode()).isZero();
+    }
+
+    @Test
+    void rejectedRowsAndMissingFilesExitNonZero() throws Exception {
+        Path rejected = file("rejected.csv", 3);
+
+        runner.run(new DefaultApplicationArguments("--import=" + rejected));
+        assertThat(runner.getExitCode()).isEqualTo(BulkImportRunner.EXIT_REJECTED_ROWS);
+
+        runner.run(new DefaultApplicationArguments("--import=" + dir.resolve("missing.csv"), "--import=" + rejected));
+        assertThat(runner.getExitCode()).isEqualTo(BulkImportRunner.EXIT_FAILED);
+    }
+
+    private Path file(String name, long rejected) throws Exception {
+        Path file = Files.writeString(dir.resolve(name), "name,price\n");
+        when(productBulkService.importProducts(any(InputStream.class), eq(BulkFormat.CSV)))
+                .thenReturn(new ImportReport(3, 3 - rejected, rejected, List.of(), 1, 3000));
+        return file;
+    }
+}
@@ -0,0 +1,74 @@
+package com.hugscape.controller;
+
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.config.SyntheticCatalogInitializer;
+import com.hugscape.entity.Product;
+import com.hugscape.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Revalidation of catalog reads served both gzipped and plain.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.hugscape=INFO",
+        "catalog.http.max-age=60s"
+})
+@AutoConfigureMockMvc
+class ProductConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    private Long productId;
+
+    @BeforeEach
+    void seed() {
+        productRepository.deleteAll();
+        List<Product> products = new SyntheticCatalogInitializer().generateProducts(50, 3);
+        products.forEach(product -> product.setIsActive(true));
+        productRepository.saveAll(products);
+        productCatalog.reload();
+        productId = productRepository.findAll().get(0).getId();
+    }
+
+    @Test
+    void notModifiedRepeatsTheCachingHeadersOfEitherEncoding() throws Exception {
+        for (String uri : List.of("/products", "/products/" + productId)) {
+            MockHttpServletResponse gzipped = mockMvc.perform(get(uri).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                    .andExpect(status().isOk()).andReturn().getResponse();
+            MockHttpServletResponse plain = mockMvc.perform(get(uri))
+                    .andExpect(status().isOk()).andReturn().getResponse();
+            String eTag = plain.getHeader(HttpHeaders.ETAG);
+
+            assertThat(eTag).startsWith("W/\"");
+            assertThat(gzipped.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+
+            MockHttpServletResponse revalidated = mockMvc.perform(get(uri)
+                            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified()).andReturn().getResponse();
+            assertThat(revalidated.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo(plain.getHeader(HttpHeaders.CACHE_CONTROL));
+            assertThat(revalidated.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.hugscape.controller;
+
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.config.SyntheticCatalogInitializer;
+import com.hugscape.entity.Product;
+import com.hugscape.repository.ProductRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Paged listings must return the same products in the same order as the unpaged listing.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.hugscape=INFO",
+        "logging.level.org.springframework.web=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class ProductListingPagingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    private String query;
+
+    @BeforeEach
+    void seed() {
+        productRepository.deleteAll();
+        List<Product> products = new SyntheticCatalogInitializer().generateProducts(300, 42);
+        products.forEach(product -> product.setIsActive(true));
+        productRepository.saveAll(products);
+        productCatalog.reload();
+        query = products.get(0).getName().split(" ")[0];
+    }
+
+    @Test
+    void searchPagesKeepRelevanceOrder() throws Exception {
+        List<Integer> relevance = ids(mockMvc.perform(get("/products/search").param("q", query))
+                .andExpect(status().isOk()).andReturn().getResponse());
+        assertThat(relevance).hasSizeGreaterThan(3);
+
+        assertThat(pagedIds(() -> get("/products/search").param("q", query), 3)).containsExactlyElementsOf(relevance);
+    }
+
+    @Test
+    void priceRangePagesStayCheapestFirst() throws Exception {
+        Supplier<MockHttpServletRequestBuilder> range =
+                () -> get("/products/price-range").param("minPrice", "0").param("maxPrice", "1000");
+        List<Integer> cheapestFirst = ids(mockMvc.perform(range.get()).andExpect(status().isOk()).andReturn().getResponse());
+
+        assertThat(pagedIds(range, 50)).containsExactlyElementsOf(cheapestFirst);
+    }
+
+    @Test
+    void malformedParametersAreBadRequests() throws Exception {
+        mockMvc.perform(get("/products").param("sort", "popularity"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown sort: popularity"));
+        mockMvc.perform(get("/products/search").param("q", query).param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products/brand/hugscape").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Ids of every page of the listing, following the next-page cursor
+    private List<Integer> pagedIds(Supplier<MockHttpServletRequestBuilder> request, int limit) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder page = request.get().param("limit", String.valueOf(limit));
+            if (cursor != null) {
+                page.param("cursor", cursor);
+            }
+            MockHttpServletResponse response = mockMvc.perform(page).andExpect(status().isOk()).andReturn().getResponse();
+            List<Integer> items = ids(response);
+            assertThat(items).hasSizeLessThanOrEqualTo(limit);
+            ids.addAll(items);
+            cursor = response.getHeader("X-Next-Cursor");
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Integer> ids(MockHttpServletResponse response) throws Exception {
+        return JsonPath.read(response.getContentAsString(), "$[*].id");
+    }
+}
@@ -0,0 +1,132 @@
+package com.hugscape.controller;
+
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.config.SyntheticCatalogInitializer;
+import com.hugscape.entity.Product;
+import com.hugscape.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prepared statements per product read, counted with Hibernate statistics at 1 and 1,000 products.
+ *
+ * Reads are served from the catalog snapshot, so once it is loaded no endpoint touches the
+ * database at all, whatever the catalog size. Loading the snapshot, including the load triggered by
+ * the first request on a cold catalog, fetches sizes, colors and images in batches of 500 products,
+ * so it costs one query for the products plus one per collection and batch, never one per product.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.hugscape=INFO",
+        "logging.level.org.springframework.web=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+class ProductReadStatementCountTest {
+
+    private static final int COLLECTION_BATCH_SIZE = 500;
+
+    private static final int ELEMENT_COLLECTIONS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void warmEndpointsRunNoStatements() throws Exception {
+        Map<String, Long> none = Map.of("/products", 0L, "/products/category/{category}", 0L, "/products/{id}", 0L);
+
+        assertThat(statementsPerEndpoint(seed(1))).isEqualTo(none);
+        assertThat(statementsPerEndpoint(seed(1000))).isEqualTo(none);
+    }
+
+    @Test
+    void firstRequestOnAColdCatalogLoadsItInBatches() throws Exception {
+        for (int count : new int[] {1, 1000}) {
+            Product sample = seed(count);
+            ReflectionTestUtils.setField(productCatalog, "current", null);
+            statistics.clear();
+
+            mockMvc.perform(get("/products/" + sample.getId())).andExpect(status().isOk());
+
+            long batches = (count + COLLECTION_BATCH_SIZE - 1) / COLLECTION_BATCH_SIZE;
+            assertThat(statistics.getPrepareStatementCount())
+                    .as("statements for the first request on a cold catalog of %d products", count)
+                    .isEqualTo(1 + ELEMENT_COLLECTIONS * batches);
+        }
+    }
+
+    @Test
+    void catalogLoadFetchesCollectionsInBatches() {
+        for (int count : new int[] {1, 1000}) {
+            seed(count);
+            statistics.clear();
+            productCatalog.reload();
+
+            long batches = (count + COLLECTION_BATCH_SIZE - 1) / COLLECTION_BATCH_SIZE;
+            assertThat(statistics.getPrepareStatementCount())
+                    .as("statements to load %d products", count)
+                    .isEqualTo(1 + ELEMENT_COLLECTIONS * batches);
+        }
+    }
+
+    // Statements prepared by each endpoint, read twice: once rendered and once from the response cache
+    private Map<String, Long> statementsPerEndpoint(Product sample) throws Exception {
+        Map<String, Long> counts = new TreeMap<>();
+        Map<String, String> paths = Map.of(
+                "/products", "/products",
+                "/products/category/{category}", "/products/category/" + sample.getCategory(),
+                "/products/{id}", "/products/" + sample.getId());
+        for (Map.Entry<String, String> endpoint : paths.entrySet()) {
+            statistics.clear();
+            for (int i = 0; i < 2; i++) {
+                mockMvc.perform(get(endpoint.getValue())).andExpect(status().isOk());
+            }
+            counts.put(endpoint.getKey(), statistics.getPrepareStatementCount());
+        }
+        return counts;
+    }
+
+    // Replace the catalog with the given number of active products and return one of them
+    private Product seed(int count) {
+        productRepository.deleteAll();
+        List<Product> products = new SyntheticCatalogInitializer().generateProducts(count, 42);
+        products.forEach(product -> product.setIsActive(true));
+        productRepository.saveAll(products);
+        productCatalog.reload();
+        return products.get(0);
+    }
+}
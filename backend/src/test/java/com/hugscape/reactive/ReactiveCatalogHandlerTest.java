@@ -0,0 +1,94 @@
+package com.hugscape.reactive;
+
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.config.SyntheticCatalogInitializer;
+import com.hugscape.entity.Product;
+import com.hugscape.repository.ProductRepository;
+import com.hugscape.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing and sorting of the reactive catalog reads.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.hugscape=INFO"
+})
+class ReactiveCatalogHandlerTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    private WebTestClient client;
+
+    private String category;
+
+    @BeforeEach
+    void seed() {
+        productRepository.deleteAll();
+        List<Product> products = new SyntheticCatalogInitializer().generateProducts(200, 7);
+        products.forEach(product -> product.setIsActive(true));
+        productRepository.saveAll(products);
+        productCatalog.reload();
+        category = products.get(0).getCategory();
+        client = WebTestClient.bindToRouterFunction(new ReactiveCatalogHandler(productService).routes()).build();
+    }
+
+    @Test
+    void unmappedSubpathsAreNotFound() {
+        client.get().uri("/api/products/query?category=baby").exchange().expectStatus().isNotFound();
+        client.get().uri("/api/products/featured").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void numericIdsAreRouted() {
+        Long id = productRepository.findAll().get(0).getId();
+        client.get().uri("/api/products/" + id).exchange().expectStatus().isOk();
+        client.get().uri("/api/products/99999999").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void sortedFullListingIsCheapestFirst() {
+        List<BigDecimal> prices = client.get().uri("/api/products?sort=price")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Product.class)
+                .returnResult()
+                .getResponseBody()
+                .stream()
+                .map(Product::getPrice)
+                .toList();
+
+        assertThat(prices).hasSize(200).isSorted();
+    }
+
+    @Test
+    void sortedCategoryListingIsCheapestFirst() {
+        List<BigDecimal> prices = client.get().uri("/api/products/category/" + category + "?sort=price")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Product.class)
+                .returnResult()
+                .getResponseBody()
+                .stream()
+                .map(Product::getPrice)
+                .toList();
+
+        assertThat(prices).isNotEmpty().isSorted();
+    }
+}
@@ -0,0 +1,25 @@
+package com.hugscape.service;
+
+import com.hugscape.catalog.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkFormatTest {
+
+    @Test
+    void importFilesAreReadByExtension() {
+        assertThat(BulkFormat.fromFileName("products.csv")).isEqualTo(BulkFormat.CSV);
+        assertThat(BulkFormat.fromFileName("products.JSON")).isEqualTo(BulkFormat.JSON);
+        assertThat(BulkFormat.fromFileName("products.ndjson")).isEqualTo(BulkFormat.NDJSON);
+        assertThat(BulkFormat.fromFileName("products.jsonl")).isEqualTo(BulkFormat.NDJSON);
+        assertThatThrownBy(() -> BulkFormat.fromFileName("products.xml")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void malformedContentTypesAreBadRequests() {
+        assertThat(BulkFormat.fromContentType("application/x-ndjson")).isEqualTo(BulkFormat.NDJSON);
+        assertThatThrownBy(() -> BulkFormat.fromContentType("not a type")).isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,45 @@
+package com.hugscape.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatedVerificationsAreServedFromTheCache() {
+        JwtService jwtService = jwtService(60_000);
+        String token = jwtService.generateToken("parent@example.com", 7L);
+
+        assertThat(jwtService.verify(token)).hasValueSatisfying(claims -> assertThat(JwtService.userId(claims)).isEqualTo(7L));
+        assertThat(jwtService.verify(token)).isPresent();
+
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedTokensStopVerifyingOnceExpired() throws InterruptedException {
+        JwtService jwtService = jwtService(1_500);
+        String token = jwtService.generateToken("parent@example.com", 7L);
+        assertThat(jwtService.verify(token)).isPresent();
+
+        Thread.sleep(2_000);
+
+        assertThat(jwtService.verify(token)).isEmpty();
+    }
+
+    private JwtService jwtService(long expirationMillis) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "test-secret-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(jwtService, "expiration", expirationMillis);
+        ReflectionTestUtils.setField(jwtService, "maxCachedTokens", 100);
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", registry);
+        jwtService.init();
+        return jwtService;
+    }
+}
@@ -0,0 +1,51 @@
+package com.hugscape.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LastLoginWriterTest {
+
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void aBurstOfLoginsQueuesOneEarlyFlush() {
+        LastLoginWriter writer = writer(10);
+        LocalDateTime now = LocalDateTime.now();
+        for (long userId = 1; userId <= 50; userId++) {
+            writer.touch(userId, now);
+        }
+        assertThat(submitted).hasSize(1);
+
+        submitted.get(0).run();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+
+        for (long userId = 1; userId <= 10; userId++) {
+            writer.touch(userId, now.plusMinutes(1));
+        }
+        assertThat(submitted).hasSize(2);
+    }
+
+    private LastLoginWriter writer(int batchSize) {
+        LastLoginWriter writer = new LastLoginWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "taskExecutor", (TaskExecutor) submitted::add);
+        ReflectionTestUtils.setField(writer, "principalCache", mock(PrincipalCache.class));
+        ReflectionTestUtils.setField(writer, "batchSize", batchSize);
+        return writer;
+    }
+}
@@ -0,0 +1,45 @@
+package com.hugscape.service;
+
+import com.hugscape.catalog.LowStockTracker;
+import com.hugscape.catalog.ProductCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LowStockAlertsTest {
+
+    private final LowStockAlerts alerts = new LowStockAlerts();
+
+    @BeforeEach
+    void init() {
+        LowStockTracker tracker = mock(LowStockTracker.class);
+        when(tracker.getLowStockProducts()).thenReturn(List.of());
+        ReflectionTestUtils.setField(alerts, "lowStockTracker", tracker);
+        ReflectionTestUtils.setField(alerts, "productCatalog", mock(ProductCatalog.class));
+        ReflectionTestUtils.setField(alerts, "streamTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(alerts, "queueCapacity", 10);
+        ReflectionTestUtils.setField(alerts, "maxSubscribers", 2);
+        alerts.init();
+    }
+
+    @AfterEach
+    void close() {
+        alerts.close();
+    }
+
+    @Test
+    void subscriptionsPastTheLimitAreRefusedUntilOneCloses() {
+        assertThat(alerts.subscribe()).isPresent();
+        assertThat(alerts.subscribe()).isPresent();
+        assertThat(alerts.subscribe()).isEmpty();
+        assertThat(alerts.getSubscriberCount()).isEqualTo(2);
+    }
+}
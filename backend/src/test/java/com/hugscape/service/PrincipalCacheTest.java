@@ -0,0 +1,73 @@
+package com.hugscape.service;
+
+import com.hugscape.dto.UserView;
+import com.hugscape.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTest {
+
+    private final PrincipalCache cache = new PrincipalCache();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        cache.bindTo(registry);
+    }
+
+    @Test
+    void secondLookupIsAHit() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("cache", "principals").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "principals").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void loadRacingAnEvictionIsNotCached() {
+        cache.get(1L, id -> {
+            cache.evict(id);
+            return load(id);
+        });
+        cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void absentUsersAreNotCached() {
+        cache.get(2L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        cache.get(2L, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Optional<UserView> load(Long id) {
+        loads.incrementAndGet();
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        return Optional.of(UserView.from(user));
+    }
+}
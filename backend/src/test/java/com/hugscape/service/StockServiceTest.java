@@ -0,0 +1,101 @@
+package com.hugscape.service;
+
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.config.SyntheticCatalogInitializer;
+import com.hugscape.dto.StockReservation;
+import com.hugscape.entity.Product;
+import com.hugscape.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stock commits update the catalog at once and reach the database on the next flush, one row write per product.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.hugscape=INFO",
+        "stock.write-behind.flush-interval-ms=3600000"
+})
+class StockServiceTest {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockWriter stockWriter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void seed() {
+        productRepository.deleteAll();
+        List<Product> products = new SyntheticCatalogInitializer().generateProducts(10, 42);
+        products.forEach(product -> {
+            product.setIsActive(true);
+            product.setStockQuantity(100);
+        });
+        productRepository.saveAll(products);
+        productCatalog.reload();
+        productId = products.get(0).getId();
+    }
+
+    @Test
+    void commitsAreCoalescedIntoOneWrite() {
+        String eTag = productCatalog.productETag(productId).orElseThrow();
+        for (int i = 0; i < 30; i++) {
+            StockReservation reservation = stockService.reserve(productId, 2).orElseThrow();
+            assertThat(stockService.commit(reservation.id())).isEqualTo(StockService.CommitResult.COMMITTED);
+        }
+
+        assertThat(productCatalog.snapshot().getProduct(productId).orElseThrow().getStockQuantity()).isEqualTo(40);
+        assertThat(productCatalog.productETag(productId)).isNotEqualTo(eTag);
+        assertThat(stockInDatabase()).isEqualTo(100);
+
+        stockWriter.flush();
+        assertThat(stockInDatabase()).isEqualTo(40);
+    }
+
+    @Test
+    void commitsNeverTakeStockBelowZero() {
+        StockReservation reservation = stockService.reserve(productId, 60).orElseThrow();
+        assertThat(stockService.setStock(productId, 50)).isTrue();
+
+        assertThat(stockService.commit(reservation.id())).isEqualTo(StockService.CommitResult.OUT_OF_STOCK);
+        assertThat(productCatalog.snapshot().getProduct(productId).orElseThrow().getStockQuantity()).isEqualTo(50);
+        assertThat(stockService.getAvailable(productId)).hasValue(50);
+
+        stockWriter.flush();
+        assertThat(stockInDatabase()).isEqualTo(50);
+    }
+
+    @Test
+    void reloadsKeepUnflushedCommits() {
+        StockReservation reservation = stockService.reserve(productId, 7).orElseThrow();
+        assertThat(stockService.commit(reservation.id())).isEqualTo(StockService.CommitResult.COMMITTED);
+
+        productCatalog.reload();
+
+        assertThat(productCatalog.snapshot().getProduct(productId).orElseThrow().getStockQuantity()).isEqualTo(93);
+        assertThat(stockInDatabase()).isEqualTo(93);
+    }
+
+    private Integer stockInDatabase() {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+}
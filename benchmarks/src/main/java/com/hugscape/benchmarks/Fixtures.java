@@ -0,0 +1,138 @@
+package com.hugscape.benchmarks;
+
+import com.hugscape.catalog.CatalogDictionary;
+import com.hugscape.catalog.ProductCatalog;
+import com.hugscape.catalog.ProductSearchIndex;
+import com.hugscape.config.SyntheticCatalogInitializer;
+import com.hugscape.entity.Product;
+import com.hugscape.entity.User;
+import com.hugscape.repository.ProductRepository;
+import com.hugscape.repository.UserRepository;
+import com.hugscape.service.JwtService;
+import com.hugscape.service.PrincipalCache;
+import com.hugscape.service.ProductService;
+import com.hugscape.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Services wired by hand, without an application context or database, over synthetic data.
+ *
+ * Repositories are stubs answering only the calls the benchmarked paths make, so results measure
+ * the in-process work and not H2 or Hibernate.
+ */
+final class Fixtures {
+
+    static final String JWT_SECRET = "benchmarkSecretKeyThatIsLongEnoughForHs256";
+
+    private Fixtures() {
+    }
+
+    // The load-test catalog generator, with ids assigned as the database would
+    static List<Product> products(int count) {
+        List<Product> products = new SyntheticCatalogInitializer().generateProducts(count, 42);
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setId(i + 1L);
+        }
+        return products;
+    }
+
+    static ProductService productService(List<Product> products) {
+        ProductSearchIndex searchIndex = new ProductSearchIndex();
+        CatalogDictionary dictionary = new CatalogDictionary();
+
+        ProductCatalog catalog = new ProductCatalog();
+        ReflectionTestUtils.setField(catalog, "productRepository", repository(ProductRepository.class,
+                Map.of("findAll", args -> products)));
+        ReflectionTestUtils.setField(catalog, "transactionManager", new NoTransactionManager());
+        ReflectionTestUtils.setField(catalog, "listeners", List.of(searchIndex, dictionary));
+        catalog.reload();
+
+        ProductService service = new ProductService();
+        ReflectionTestUtils.setField(service, "productCatalog", catalog);
+        ReflectionTestUtils.setField(service, "productSearchIndex", searchIndex);
+        ReflectionTestUtils.setField(service, "catalogDictionary", dictionary);
+        return service;
+    }
+
+    static JwtService jwtService(int maxCachedTokens) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(service, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(service, "maxCachedTokens", maxCachedTokens);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    static UserService userService(JwtService jwtService, User user) {
+        PrincipalCache principalCache = new PrincipalCache();
+        ReflectionTestUtils.setField(principalCache, "ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(principalCache, "maxEntries", 10_000);
+
+        UserService service = new UserService();
+        ReflectionTestUtils.setField(service, "userRepository", repository(UserRepository.class,
+                Map.of("findById", args -> user.getId().equals(args[0]) ? Optional.of(user) : Optional.empty())));
+        ReflectionTestUtils.setField(service, "jwtService", jwtService);
+        ReflectionTestUtils.setField(service, "principalCache", principalCache);
+        return service;
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setGoogleId("google-" + id);
+        user.setEmail("parent" + id + "@example.com");
+        user.setName("Parent " + id);
+        user.setEmailVerified(true);
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        user.setIsActive(true);
+        return user;
+    }
+
+    // Repository stub answering the named methods; anything else fails loudly
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Map<String, Answer> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Answer answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getName().equals("toString")) {
+                return type.getSimpleName() + " stub";
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        });
+    }
+
+    private interface Answer {
+        Object apply(Object[] args);
+    }
+
+    private static final class NoTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
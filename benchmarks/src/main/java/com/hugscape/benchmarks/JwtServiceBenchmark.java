@@ -0,0 +1,57 @@
+package com.hugscape.benchmarks;
+
+import com.hugscape.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification. {@code cached} verifies a token already in the verification
+ * cache; {@code uncached} disables the cache so every call checks the signature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({"cached", "uncached"})
+    public String verification;
+
+    private JwtService jwtService;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = Fixtures.jwtService("cached".equals(verification) ? 10_000 : 0);
+        token = jwtService.generateToken("parent1@example.com", 1L);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("parent1@example.com", 1L);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public Long extractUserId() {
+        return jwtService.extractUserId(token);
+    }
+}
@@ -0,0 +1,67 @@
+package com.hugscape.benchmarks;
+
+import com.hugscape.entity.Product;
+import com.hugscape.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog reads over synthetic catalogs of increasing size.
+ *
+ * The search queries cover a common word, a prefix, a two-word query and a term with no matches.
+ * The 1M catalog needs a few GB of heap; the fork is sized for it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class ProductServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private ProductService productService;
+
+    @Setup
+    public void setUp() {
+        productService = Fixtures.productService(Fixtures.products(catalogSize));
+    }
+
+    @Benchmark
+    public List<Product> searchProducts(Query query) {
+        return productService.searchProducts(query.text);
+    }
+
+    // About a tenth of the synthetic catalog, which is priced 9.99 to 69.98
+    @Benchmark
+    public List<Product> getProductsByPriceRange() {
+        return productService.getProductsByPriceRange(20.0, 25.99);
+    }
+
+    @Benchmark
+    public List<String> getAllCategories() {
+        return productService.getAllCategories();
+    }
+
+    // Only searchProducts is parameterized by query
+    @State(Scope.Benchmark)
+    public static class Query {
+
+        @Param({"cotton", "dino", "striped hoodie", "zebra"})
+        public String text;
+    }
+}
@@ -0,0 +1,54 @@
+package com.hugscape.benchmarks;
+
+import com.hugscape.dto.UserView;
+import com.hugscape.entity.User;
+import com.hugscape.service.JwtService;
+import com.hugscape.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving the user behind a bearer token: {@code getUserFromToken} looks the user up on every
+ * call (against an in-memory stub), {@code getUserViewFromToken} goes through the principal cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private UserService userService;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        User user = Fixtures.user(1L);
+        JwtService jwtService = Fixtures.jwtService(10_000);
+        userService = Fixtures.userService(jwtService, user);
+        token = jwtService.generateToken(user.getEmail(), user.getId());
+    }
+
+    @Benchmark
+    public Optional<User> getUserFromToken() {
+        return userService.getUserFromToken(token);
+    }
+
+    @Benchmark
+    public Optional<UserView> getUserViewFromToken() {
+        return userService.getUserViewFromToken(token);
+    }
+}
@@ -0,0 +1,111 @@
+package com.hugscape.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The request types of the traffic mix, with their default share of requests.
+ *
+ * Defaults approximate a storefront: mostly anonymous browsing, some search and filtering,
+ * a few signed-in profile reads and a trickle of stock updates.
+ */
+enum Endpoint {
+
+    BROWSE(35) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return target.get("/products?limit=24&view=summary" + (random.nextInt(4) == 0 ? "&sort=price" : ""));
+        }
+    },
+
+    DETAIL(20) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return target.get("/products/" + target.randomProductId(random));
+        }
+    },
+
+    SEARCH(15) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return target.get("/products/search?limit=24&q=" + encode(pick(random, SEARCH_TERMS)));
+        }
+    },
+
+    FACET(15) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            String query = "/products/query?pageSize=24&category=" + pick(random, CATEGORIES);
+            if (random.nextBoolean()) {
+                query += "&brand=" + encode(pick(random, BRANDS));
+            }
+            if (random.nextInt(3) == 0) {
+                query += "&inStock=true";
+            }
+            return target.get(query);
+        }
+    },
+
+    PROFILE(10) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return target.get("/auth/profile")
+                    .header("Authorization", "Bearer " + target.randomToken(random));
+        }
+    },
+
+    STOCK_UPDATE(5) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(target.uri("/products/" + target.randomProductId(random)
+                            + "/stock?quantity=" + random.nextInt(100)))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody());
+        }
+    };
+
+    private static final String[] SEARCH_TERMS = {"cotton", "dino", "unicorn pajamas", "striped hoodie", "rainbow", "organic", "kurta"};
+    private static final String[] CATEGORIES = {"nightwear", "boys", "girls", "new-arrivals", "baby", "accessories"};
+    private static final String[] BRANDS = {"Hugscape", "Little Sprout", "Tiny Tots", "Moonbeam", "Playtime"};
+
+    private final int defaultWeight;
+
+    Endpoint(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    abstract HttpRequest.Builder request(Target target, ThreadLocalRandom random);
+
+    static Endpoint fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    private static String pick(ThreadLocalRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // The system under test: base URL, seeded product ids and the tokens of the seeded users
+    interface Target {
+
+        URI uri(String path);
+
+        long randomProductId(ThreadLocalRandom random);
+
+        String randomToken(ThreadLocalRandom random);
+
+        default HttpRequest.Builder get(String path) {
+            return HttpRequest.newBuilder(uri(path)).GET();
+        }
+    }
+}
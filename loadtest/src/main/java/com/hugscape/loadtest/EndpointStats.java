@@ -0,0 +1,93 @@
+package com.hugscape.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts of one endpoint. Latencies are measured from the time a request
+ * was scheduled to be sent, not from when it actually went out, so a stalled server shows up as
+ * latency instead of as fewer requests (coordinated omission).
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Endpoint endpoint;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    EndpointStats(Endpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    Endpoint endpoint() {
+        return endpoint;
+    }
+
+    void completed(long latencyNanos, int status) {
+        recorder.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        }
+    }
+
+    // Connection failures and timeouts; counted as errors, latency still recorded
+    void failed(long latencyNanos) {
+        recorder.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        failures.increment();
+    }
+
+    // Requests never sent because too many were in flight; recorded as if they had timed out, so an
+    // overloaded server cannot improve its percentiles by shedding the driver's requests
+    void dropped(long timeoutNanos) {
+        recorder.recordValue(Math.min(timeoutNanos, HIGHEST_TRACKABLE_NANOS));
+        dropped.increment();
+    }
+
+    // Drop everything recorded so far, e.g. at the end of the warm-up
+    synchronized void reset() {
+        recorder.reset();
+        total.reset();
+        clientErrors.reset();
+        serverErrors.reset();
+        failures.reset();
+        dropped.reset();
+    }
+
+    // Latencies recorded since the previous call, also added to the running total
+    synchronized Histogram interval() {
+        Histogram interval = recorder.getIntervalHistogram();
+        total.add(interval);
+        return interval;
+    }
+
+    synchronized Histogram total() {
+        total.add(recorder.getIntervalHistogram());
+        return total.copy();
+    }
+
+    long clientErrors() {
+        return clientErrors.sum();
+    }
+
+    long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,345 @@
+package com.hugscape.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hugscape.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a weighted mix of storefront requests against a backend started with the
+ * {@code loadtest} profile, at a fixed arrival rate, and reports throughput and latency
+ * percentiles per endpoint.
+ *
+ * Requests are sent on schedule whether or not earlier ones have completed (an open model), so
+ * the offered load stays at the target rate when the server slows down. Bearer tokens are minted
+ * locally with {@link JwtService} for the seeded users; no OAuth round trip is involved. Product
+ * ids are those of the active products listed by the backend once it is ready, so detail and
+ * stock requests never hit deactivated products.
+ *
+ * Requests not sent because {@code max-in-flight} were already outstanding are recorded as timed
+ * out, and any such request makes the run exit with status 1: its results understate latency.
+ *
+ * Options, all {@code --name=value}: base-url, rps, duration, warmup, users, jwt-secret,
+ * mix (e.g. {@code browse:50,search:30,profile:20}), max-in-flight, report (JSON output file).
+ */
+public final class LoadTestDriver {
+
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(10);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int ID_PAGE_SIZE = 200;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "base-url", "http://localhost:8080/api",
+            "rps", "200",
+            "duration", "60",
+            "warmup", "10",
+            "users", "1000",
+            "jwt-secret", "loadtest-signing-key-not-for-production-use-0001",
+            "max-in-flight", "2000",
+            "report", "loadtest-result.json");
+
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Endpoint[] schedule;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private Endpoint.Target target;
+
+    private LoadTestDriver(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = options.get("base-url").replaceAll("/+$", "");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+        this.schedule = schedule(options.get("mix"));
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        long dropped = new LoadTestDriver(options).run();
+        System.exit(dropped > 0 ? 1 : 0);
+    }
+
+    // Runs the test and returns the number of measured requests that could not be sent
+    private long run() throws IOException, InterruptedException {
+        awaitReadiness(Duration.ofMinutes(5));
+        target = target(options, baseUrl, activeProductIds());
+        int rps = Integer.parseInt(options.get("rps"));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("warmup")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("duration")));
+        int maxInFlight = Integer.parseInt(options.get("max-in-flight"));
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+
+        System.out.printf("Offering %d req/s to %s for %ds after a %ds warm-up%n",
+                rps, options.get("base-url"), durationNanos / 1_000_000_000L, warmupNanos / 1_000_000_000L);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long nextProgress = measureFrom + PROGRESS_INTERVAL.toNanos();
+        boolean measuring = warmupNanos == 0;
+
+        for (long n = 0; ; n++) {
+            long intended = start + n * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!measuring && intended >= measureFrom) {
+                stats.values().forEach(EndpointStats::reset);
+                measuring = true;
+            }
+            if (measuring && intended >= nextProgress) {
+                printProgress(PROGRESS_INTERVAL);
+                nextProgress += PROGRESS_INTERVAL.toNanos();
+            }
+            send(schedule[ThreadLocalRandom.current().nextInt(schedule.length)], intended, maxInFlight);
+        }
+
+        awaitInFlight(REQUEST_TIMEOUT);
+        return report(durationNanos);
+    }
+
+    // The backend seeds its data after the web server is up; readiness flips once seeding is done
+    private void awaitReadiness(Duration timeout) throws IOException, InterruptedException {
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        System.out.print("Waiting for the backend to become ready");
+        while (true) {
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    System.out.println();
+                    return;
+                }
+            } catch (IOException e) {
+                // Not accepting connections yet
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IOException("Backend at " + options.get("base-url") + " not ready after " + timeout);
+            }
+            System.out.print('.');
+            Thread.sleep(1000);
+        }
+    }
+
+    // Ids of all active products, read one listing page at a time
+    private long[] activeProductIds() throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            String query = "/products?view=summary&limit=" + ID_PAGE_SIZE
+                    + (cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + query))
+                    .timeout(REQUEST_TIMEOUT)
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IOException("Listing products failed with status " + response.statusCode());
+            }
+            for (JsonNode product : MAPPER.readTree(response.body())) {
+                ids.add(product.get("id").asLong());
+            }
+            cursor = response.headers().firstValue("X-Next-Cursor").orElse(null);
+        } while (cursor != null);
+        if (ids.isEmpty()) {
+            throw new IOException("Backend at " + baseUrl + " has no active products");
+        }
+        System.out.printf("Found %d active products%n", ids.size());
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void send(Endpoint endpoint, long intended, int maxInFlight) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            // The server has fallen this far behind; record the request as timed out instead of queueing without bound
+            inFlight.decrementAndGet();
+            endpointStats.dropped(REQUEST_TIMEOUT.toNanos());
+            return;
+        }
+        HttpRequest request = endpoint.request(target, ThreadLocalRandom.current())
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long latency = System.nanoTime() - intended;
+                    if (failure != null) {
+                        endpointStats.failed(latency);
+                    } else {
+                        endpointStats.completed(latency, response.statusCode());
+                    }
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    private void awaitInFlight(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    private void printProgress(Duration interval) {
+        long count = 0;
+        Histogram all = new Histogram(3);
+        for (EndpointStats endpointStats : stats.values()) {
+            Histogram histogram = endpointStats.interval();
+            count += histogram.getTotalCount();
+            all.add(histogram);
+        }
+        System.out.printf("  %6.0f req/s  p50 %7.2f ms  p99 %7.2f ms  in flight %d%n",
+                count / (double) interval.toSeconds(), millis(all.getValueAtPercentile(50)),
+                millis(all.getValueAtPercentile(99)), inFlight.get());
+    }
+
+    private long report(long durationNanos) throws IOException {
+        double seconds = durationNanos / 1e9;
+        long dropped = 0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.printf("%n%-13s %9s %9s %6s %6s %6s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "4xx", "5xx", "failed", "dropped", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats endpointStats : stats.values()) {
+            Histogram histogram = endpointStats.total();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpointStats.endpoint().name().toLowerCase(Locale.ROOT));
+            row.put("requests", histogram.getTotalCount());
+            row.put("throughput", histogram.getTotalCount() / seconds);
+            row.put("clientErrors", endpointStats.clientErrors());
+            row.put("serverErrors", endpointStats.serverErrors());
+            row.put("failures", endpointStats.failures());
+            row.put("dropped", endpointStats.dropped());
+            row.put("p50", millis(histogram.getValueAtPercentile(50)));
+            row.put("p90", millis(histogram.getValueAtPercentile(90)));
+            row.put("p95", millis(histogram.getValueAtPercentile(95)));
+            row.put("p99", millis(histogram.getValueAtPercentile(99)));
+            row.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+            row.put("max", millis(histogram.getMaxValue()));
+            rows.add(row);
+            dropped += endpointStats.dropped();
+            System.out.printf("%-13s %9d %9.1f %6d %6d %6d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", row.values().toArray());
+        }
+        if (dropped > 0) {
+            System.out.printf("%d requests not sent and recorded as timed out: more than %s were already in flight. "
+                    + "Lower the rate or raise max-in-flight for a valid run.%n", dropped, options.get("max-in-flight"));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("targetRps", Integer.parseInt(options.get("rps")));
+        result.put("durationSeconds", seconds);
+        result.put("dropped", dropped);
+        result.put("endpoints", rows);
+        File file = new File(options.get("report"));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+        System.out.println("Results written to " + file.getAbsolutePath());
+        return dropped;
+    }
+
+    private static Endpoint.Target target(Map<String, String> options, String baseUrl, long[] productIds) {
+        int users = Integer.parseInt(options.get("users"));
+
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", options.get("jwt-secret"));
+        ReflectionTestUtils.setField(jwtService, "expiration", TimeUnit.DAYS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "maxCachedTokens", 0);
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        String[] tokens = new String[users];
+        for (int i = 0; i < users; i++) {
+            long userId = i + 1L;
+            tokens[i] = jwtService.generateToken("loadtest" + userId + "@example.com", userId);
+        }
+
+        return new Endpoint.Target() {
+            @Override
+            public URI uri(String path) {
+                return URI.create(baseUrl + path);
+            }
+
+            @Override
+            public long randomProductId(ThreadLocalRandom random) {
+                return productIds[random.nextInt(productIds.length)];
+            }
+
+            @Override
+            public String randomToken(ThreadLocalRandom random) {
+                return tokens[random.nextInt(tokens.length)];
+            }
+        };
+    }
+
+    // One slot per weight point, so picking an endpoint is a single random index
+    private static Endpoint[] schedule(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        if (mix == null || mix.isBlank()) {
+            for (Endpoint endpoint : Endpoint.values()) {
+                weights.put(endpoint, endpoint.defaultWeight());
+            }
+        } else {
+            for (String part : mix.split(",")) {
+                String[] nameAndWeight = part.split(":");
+                weights.put(Endpoint.fromName(nameAndWeight[0]), Integer.parseInt(nameAndWeight[1].trim()));
+            }
+        }
+        List<Endpoint> slots = new ArrayList<>();
+        weights.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(endpoint);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no weight: " + mix);
+        }
+        return slots.toArray(new Endpoint[0]);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,174 @@
+package com.hugscape.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the backend repeatedly in each packaged form and reports the time from launching the
+ * process to the first successful {@code GET /api/products}.
+ *
+ * Modes: {@code jvm} (the executable jar), {@code cds} (AOT-processed jar with the class data
+ * archive, built with {@code mvn -Pcds package}) and {@code native} (the GraalVM image, built with
+ * {@code mvn -Pnative native:compile}). Modes whose artifacts have not been built are skipped.
+ *
+ * Options, all {@code --name=value}: backend-target (the backend's target directory), modes,
+ * runs, port, timeout (seconds per start), java (launcher for the JVM modes), report (JSON output file).
+ */
+public final class StartupBenchmark {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "backend-target", "backend/target",
+            "modes", "jvm,cds,native",
+            "runs", "5",
+            "port", "8080",
+            "timeout", "180",
+            "java", Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "report", "startup-result.json");
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final Map<String, String> options;
+    private final Path target;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupBenchmark(Map<String, String> options) {
+        this.options = options;
+        this.target = Path.of(options.get("backend-target"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new StartupBenchmark(options).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        int runs = Integer.parseInt(options.get("runs"));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (String mode : options.get("modes").split(",")) {
+            List<String> command = command(mode.trim());
+            if (command == null) {
+                System.out.printf("Skipping %s: not built under %s%n", mode, target.toAbsolutePath());
+                continue;
+            }
+            long[] samples = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                samples[i] = timeToFirstResponse(mode, command);
+                System.out.printf("  %-6s run %d: %d ms%n", mode, i + 1, samples[i]);
+            }
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("mode", mode);
+            row.put("runs", runs);
+            row.put("minMillis", sorted[0]);
+            row.put("medianMillis", sorted[runs / 2]);
+            row.put("maxMillis", sorted[runs - 1]);
+            row.put("samplesMillis", samples);
+            rows.add(row);
+        }
+
+        System.out.printf("%n%-8s %6s %10s %10s %10s%n", "mode", "runs", "min ms", "median ms", "max ms");
+        for (Map<String, Object> row : rows) {
+            System.out.printf("%-8s %6d %10d %10d %10d%n", row.get("mode"), row.get("runs"),
+                    row.get("minMillis"), row.get("medianMillis"), row.get("maxMillis"));
+        }
+        File file = new File(options.get("report"));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, Map.of("modes", rows));
+        System.out.println("Results written to " + file.getAbsolutePath());
+    }
+
+    // The launch command of a mode, or null when its artifacts are missing
+    private List<String> command(String mode) {
+        String java = options.get("java");
+        return switch (mode) {
+            case "jvm" -> existing(List.of(java, "-jar", target.resolve("kids-shopping-backend-1.0.0-exec.jar").toString()),
+                    target.resolve("kids-shopping-backend-1.0.0-exec.jar"));
+            case "cds" -> existing(List.of(java, "-XX:SharedArchiveFile=" + target.resolve("cds/application.jsa"),
+                            "-Dspring.aot.enabled=true", "-jar", target.resolve("cds/kids-shopping-backend-1.0.0-cds.jar").toString()),
+                    target.resolve("cds/application.jsa"));
+            case "native" -> existing(List.of(target.resolve("kids-shopping-backend").toString()),
+                    target.resolve("kids-shopping-backend"));
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+    }
+
+    private static List<String> existing(List<String> command, Path... required) {
+        for (Path path : required) {
+            if (!Files.exists(path)) {
+                return null;
+            }
+        }
+        return command;
+    }
+
+    private long timeToFirstResponse(String mode, List<String> command) throws IOException, InterruptedException {
+        int port = Integer.parseInt(options.get("port"));
+        URI products = URI.create("http://localhost:" + port + "/api/products");
+        if (succeeds(products)) {
+            throw new IOException("Something is already serving " + products + "; stop it first");
+        }
+        List<String> launch = new ArrayList<>(command);
+        launch.add("--server.port=" + port);
+        File log = new File("startup-" + mode + ".log");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(launch)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            long deadline = start + TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("timeout")));
+            while (!succeeds(products)) {
+                if (!process.isAlive()) {
+                    throw new IOException(mode + " exited with " + process.exitValue() + " before serving; see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IOException(mode + " not serving after " + options.get("timeout") + "s; see " + log);
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean succeeds(URI uri) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            // Not accepting connections yet
+            return false;
+        }
+    }
+}